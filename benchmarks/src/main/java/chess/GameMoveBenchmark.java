@@ -0,0 +1,59 @@
+package chess;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what the server does for every MAKE_MOVE: play the move, then ask
+ * whether the opponent is mated, stalemated or in check. Each invocation
+ * plays a scholar's mate from a fresh game so the last move ends it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameMoveBenchmark {
+    private static final ChessMove[] SCHOLARS_MATE = {
+            ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null),
+            ChessMove.of(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null),
+            ChessMove.of(ChessPosition.of(1, 6), ChessPosition.of(4, 3), null),
+            ChessMove.of(ChessPosition.of(8, 2), ChessPosition.of(6, 3), null),
+            ChessMove.of(ChessPosition.of(1, 4), ChessPosition.of(5, 8), null),
+            ChessMove.of(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null),
+            ChessMove.of(ChessPosition.of(5, 8), ChessPosition.of(7, 6), null),
+    };
+
+    @Benchmark
+    public void makeMoveAndCheckForEnd(Blackhole blackhole) throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (ChessMove move : SCHOLARS_MATE) {
+            ChessGame.TeamColor opponent = (game.getTeamTurn() == ChessGame.TeamColor.WHITE)
+                    ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+            game.makeMove(move);
+            // same order as WebSocketHandler.makeMove
+            if (game.isInCheckmate(opponent)) {
+                game.setGameEnded(true);
+            } else if (game.isInStalemate(opponent)) {
+                game.setGameEnded(true);
+            } else {
+                blackhole.consume(game.isInCheck(opponent));
+            }
+        }
+        if (!game.isGameEnded()) {
+            throw new IllegalStateException("scholar's mate should end the game");
+        }
+        blackhole.consume(game);
+    }
+}
@@ -0,0 +1,69 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import websocket.messages.LoadGameMessage;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures turning a game into JSON and back, as the older SqlGameDAO did
+ * with a new Gson for every read and write, against the binary
+ * ChessGameCodec it stores games with now. LOAD_GAME messages go through the
+ * handler's long-lived Gson.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameSerializationBenchmark {
+    private final Gson sharedGson = new Gson();
+    private ChessGame game;
+    private String gameJson;
+    private byte[] gameBytes;
+
+    @Setup
+    public void setUp() throws InvalidMoveException {
+        game = new ChessGame();
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null));
+        gameJson = sharedGson.toJson(game);
+        gameBytes = ChessGameCodec.encode(game);
+    }
+
+    @Benchmark
+    public String writeGameAsDao() {
+        return new Gson().toJson(game);
+    }
+
+    @Benchmark
+    public ChessGame readGameAsDao() {
+        return new Gson().fromJson(gameJson, ChessGame.class);
+    }
+
+    @Benchmark
+    public byte[] writeGameWithCodec() {
+        return ChessGameCodec.encode(game);
+    }
+
+    @Benchmark
+    public ChessGame readGameWithCodec() {
+        return ChessGameCodec.decode(gameBytes);
+    }
+
+    @Benchmark
+    public String writeLoadGameMessage() {
+        return sharedGson.toJson(new LoadGameMessage(game));
+    }
+}
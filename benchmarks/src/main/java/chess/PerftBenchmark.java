@@ -0,0 +1,66 @@
+package chess;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the move generator by running perft from the starting position.
+ * Besides the time per call, the "nodes" counter reports leaf positions per
+ * second, which is the number to compare between engine changes.
+ * <p>
+ * Build with {@code mvn -pl benchmarks -am package} and run with
+ * {@code java -jar benchmarks/target/benchmarks.jar PerftBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PerftBenchmark {
+
+    @Param({"3", "4"})
+    int depth;
+
+    private ChessGame game;
+
+    @Setup
+    public void setUp() {
+        game = new ChessGame();
+    }
+
+    /**
+     * Counts nodes visited so JMH can report them as a rate.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Nodes {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Benchmark
+    public long perft(Nodes counter) {
+        long nodes = Perft.perft(game, depth);
+        counter.nodes += nodes;
+        return nodes;
+    }
+
+}
@@ -0,0 +1,114 @@
+package server.websocket;
+
+import chess.ChessGame;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.NotificationMessage;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link WebSocketHandler#broadcast} fanning a message out to one
+ * game while other games are connected too. Sessions are stubs whose
+ * sendString hands the text to a Blackhole and completes the write at once,
+ * so only the server's own work is timed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BroadcastBenchmark {
+
+    @Param({"1", "100"})
+    int games;
+
+    @Param({"2", "10"})
+    int sessionsPerGame;
+
+    private GameActors gameActors;
+    private WebSocketHandler handler;
+    private Session sender;
+    private LoadGameMessage loadGame;
+    private NotificationMessage notification;
+    private PrintStream stdout;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        GameRooms gameRooms = new GameRooms();
+        for (int gameID = 1; gameID <= games; gameID++) {
+            for (int i = 0; i < sessionsPerGame; i++) {
+                gameRooms.join(gameID, stubSession(blackhole));
+            }
+        }
+        sender = gameRooms.sessions(1).iterator().next();
+        gameActors = new GameActors(1);
+        handler = new WebSocketHandler(null, null, gameRooms, gameActors);
+        loadGame = new LoadGameMessage(new ChessGame());
+        notification = new NotificationMessage("alice (WHITE) made move: e2 e4");
+
+        // broadcast logs every call; keep that cost but not the output
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(stdout);
+        gameActors.close();
+    }
+
+    @Benchmark
+    public void broadcastLoadGame() {
+        handler.broadcast(1, sender, loadGame, true);
+    }
+
+    @Benchmark
+    public void broadcastNotification() {
+        handler.broadcast(1, sender, notification, false);
+    }
+
+    private static Session stubSession(Blackhole blackhole) {
+        RemoteEndpoint remote = (RemoteEndpoint) Proxy.newProxyInstance(
+                BroadcastBenchmark.class.getClassLoader(), new Class<?>[]{RemoteEndpoint.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("sendString")) {
+                        blackhole.consume(args[0]);
+                        if (args.length > 1 && args[1] instanceof WriteCallback callback) {
+                            callback.writeSuccess();
+                        }
+                    }
+                    return null;
+                });
+        return (Session) Proxy.newProxyInstance(
+                BroadcastBenchmark.class.getClassLoader(), new Class<?>[]{Session.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "isOpen" -> true;
+                    case "getRemote" -> remote;
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "stub session";
+                    default -> null;
+                });
+    }
+}
@@ -0,0 +1,49 @@
+package websocket;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import websocket.commands.UserGameCommand;
+import websocket.commands.UserGameCommandDeserializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing incoming websocket commands the way WebSocketHandler
+ * does, through {@link UserGameCommandDeserializer}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommandParsingBenchmark {
+    private static final String CONNECT =
+            "{\"commandType\":\"CONNECT\",\"authToken\":\"6f1c2a4e-0d7b-4a8e-9f43-2b5d6c7e8f90\",\"gameID\":42}";
+    private static final String MAKE_MOVE =
+            "{\"commandType\":\"MAKE_MOVE\",\"authToken\":\"6f1c2a4e-0d7b-4a8e-9f43-2b5d6c7e8f90\",\"gameID\":42,"
+            + "\"move\":{\"startPosition\":{\"row\":2,\"col\":5},\"endPosition\":{\"row\":4,\"col\":5}}}";
+
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(UserGameCommand.class, new UserGameCommandDeserializer())
+            .create();
+
+    @Benchmark
+    public UserGameCommand parseConnect() {
+        return gson.fromJson(CONNECT, UserGameCommand.class);
+    }
+
+    @Benchmark
+    public UserGameCommand parseMakeMove() {
+        return gson.fromJson(MAKE_MOVE, UserGameCommand.class);
+    }
+}
@@ -40,7 +40,14 @@ public class ServerFacade {
     }
 
     public ListResult list (String authToken) throws Exception {
-        var path = "/game";
+        return list(authToken, null);
+    }
+
+    /**
+     * @param cursor the nextCursor of the previous page, or null for the first page
+     */
+    public ListResult list (String authToken, Integer cursor) throws Exception {
+        var path = (cursor == null) ? "/game" : "/game?cursor=" + cursor;
         return this.makeRequest("GET", path, null, ListResult.class, authToken);
     }
 
@@ -2,11 +2,13 @@ package server.websocket;
 
 import websocket.messages.ErrorMessage;
 import websocket.messages.LoadGameMessage;
+import websocket.messages.MoveMessage;
 import websocket.messages.NotificationMessage;
 
 public interface NotificationHandler {
     void handleError (ErrorMessage errorMessage);
     void handleLoadGame (LoadGameMessage loadGameMessage);
+    void handleMove (MoveMessage moveMessage);
     void handleNotification (NotificationMessage notificationMessage);
 
 }
@@ -43,6 +43,7 @@ public class WebSocketFacade extends Endpoint {
 
                     switch (serverMessage.getServerMessageType()) {
                         case LOAD_GAME -> notificationHandler.handleLoadGame((LoadGameMessage) serverMessage);
+                        case MOVE -> notificationHandler.handleMove((MoveMessage) serverMessage);
                         case NOTIFICATION -> notificationHandler.handleNotification((NotificationMessage) serverMessage);
                         case ERROR -> notificationHandler.handleError((ErrorMessage) serverMessage);
                     }
@@ -81,7 +82,7 @@ public class WebSocketFacade extends Endpoint {
         this.gameID = gameID;
 
         try {
-            Connect connectCommand = new Connect(this.authToken, this.gameID);
+            Connect connectCommand = new Connect(this.authToken, this.gameID, true);
             sendCommand(connectCommand);
         } catch (Exception e) {
             this.authToken = null;
@@ -105,6 +106,14 @@ public class WebSocketFacade extends Endpoint {
         sendCommand(makeMoveCommand);
     }
 
+    /**
+     * Asks for the whole game again, after a MOVE message couldn't be applied.
+     */
+    public void resync() throws Exception {
+        assertReady();
+        sendCommand(new Resync(this.authToken, this.gameID));
+    }
+
     public void resign() throws Exception {
         assertReady();
         Resign resignCommand = new Resign(this.authToken, this.gameID);
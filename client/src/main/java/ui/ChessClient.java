@@ -1,6 +1,6 @@
 package ui;
 import chess.*;
-import model.GameData;
+import model.GameSummary;
 import requestresult.*;
 import server.ServerFacade;
 import server.websocket.*;
@@ -196,14 +196,23 @@ public class ChessClient implements NotificationHandler {
     }
     private String list() {
         try {
-            ListResult result = serverFacade.list(this.authToken);
-            if (result == null || result.games() == null || result.games().isEmpty()) {
+            List<GameSummary> games = new ArrayList<>();
+            Integer cursor = null;
+            do {
+                ListResult result = serverFacade.list(this.authToken, cursor);
+                if (result == null || result.games() == null) {
+                    break;
+                }
+                games.addAll(result.games());
+                cursor = result.nextCursor();
+            } while (cursor != null);
+            if (games.isEmpty()) {
                 return "\nNo games available.\n";
             }
             StringBuilder response = new StringBuilder("\nAvailable Games:\n");
             this.gameIndexToID.clear();
             int displayIndex = 1;
-            for (GameData game : result.games()) {
+            for (GameSummary game : games) {
                 this.gameIndexToID.put(displayIndex, game.gameID());
                 String whitePlayer = (game.whiteUsername() == null || game.whiteUsername().isEmpty()) ? "[available]" : game.whiteUsername();
                 String blackPlayer = (game.blackUsername() == null || game.blackUsername().isEmpty()) ? "[available]" : game.blackUsername();
@@ -347,7 +356,7 @@ public class ChessClient implements NotificationHandler {
                 promotionPiece = getPromotionPiece(promoInput);
             }
         }
-        ChessMove chessMove = new ChessMove(startPos, endPos, promotionPiece);
+        ChessMove chessMove = ChessMove.of(startPos, endPos, promotionPiece);
         this.webSocketFacade.makeMove(chessMove);
         return "\n";
     }
@@ -370,7 +379,7 @@ public class ChessClient implements NotificationHandler {
             return null;
         }
         int col = colChar - 'A' + 1;
-        return new ChessPosition(row, col);
+        return ChessPosition.of(row, col);
     }
     private String resign() {
         if (gameContext == null || gameContext.playerColor() == null) {
@@ -477,6 +486,35 @@ public class ChessClient implements NotificationHandler {
     public void handleLoadGame(LoadGameMessage message) {
         ChessGame game = message.getGame();
         this.gameContext = new GameContext(gameContext.playerColor(), gameContext.gameID(), game);
+        drawGame(game);
+    }
+    @Override
+    public void handleMove(MoveMessage message) {
+        ChessGame game = gameContext.chessGame();
+        // anything but the very next move means we missed one, so start over from the server's copy
+        if (game == null || message.getSequence() != game.getMoveCount() + 1) {
+            requestResync();
+            return;
+        }
+        try {
+            game.makeMove(message.getMove());
+        } catch (InvalidMoveException e) {
+            requestResync();
+            return;
+        }
+        if (message.isCheckmate() || message.isStalemate()) {
+            game.setGameEnded(true);
+        }
+        drawGame(game);
+    }
+    private void requestResync() {
+        try {
+            webSocketFacade.resync();
+        } catch (Exception e) {
+            System.out.println("\n" + SET_TEXT_COLOR_RED + "Lost track of the game: " + e.getMessage() + RESET_TEXT_COLOR);
+        }
+    }
+    private void drawGame(ChessGame game) {
         this.printBoard.setChessBoard(game.getBoard());
         System.out.print("\n");
         switch (gameContext.playerColor()) {
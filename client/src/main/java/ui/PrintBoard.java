@@ -103,7 +103,7 @@ public class PrintBoard {
     }
 
     private void placePiece(int row, int col, StringBuilder boardString) {
-        ChessPosition currentPosition = new ChessPosition(row, col);
+        ChessPosition currentPosition = ChessPosition.of(row, col);
         ChessPiece piece = (chessBoard != null) ? chessBoard.getPiece(currentPosition) : null;
 
         String bgColor = getCellColor(row, col, currentPosition);
@@ -0,0 +1,175 @@
+package dataaccess;
+
+import model.AuthData;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Remembers recent auth token lookups in front of another AuthDAO, since
+ * nearly every request checks a token.
+ * <p>
+ * Tokens that were found are kept for ttlMillis and tokens that weren't are
+ * remembered as missing for negativeTtlMillis, so clients retrying a bad token
+ * don't reach the database either. Found and missing tokens are kept apart,
+ * each capped at its own size (maxSize and maxMissing), so a flood of bad
+ * tokens can't push out valid sessions. Once a cap is passed the least
+ * recently used tenth of those entries is dropped. Logging out and clearing
+ * take effect immediately on this server; other servers sharing the database
+ * only see a logout once their cached entry expires.
+ * <p>
+ * Lookups don't share a lock. A lookup that misses the cache leaves a ticket
+ * for its token while it asks the backing DAO, and only caches the answer if
+ * the ticket is still there, so a login or logout for that token in the
+ * meantime keeps the stale answer out without holding up lookups for any
+ * other token.
+ */
+public class CachedAuthDAO implements AuthDAO {
+    private final AuthDAO delegate;
+    private final int maxSize;
+    private final int maxMissing;
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+    private final Map<String, CachedAuth> found = new ConcurrentHashMap<>();
+    private final Map<String, CachedAuth> missing = new ConcurrentHashMap<>();
+    // lookups waiting on the backing DAO; changes to a token are made inside its compute
+    private final ConcurrentHashMap<String, Object> lookups = new ConcurrentHashMap<>();
+    // one eviction at a time, the rest carry on without waiting
+    private final ReentrantLock evicting = new ReentrantLock();
+
+    // auth is null when the token is known not to exist
+    private static final class CachedAuth {
+        final AuthData auth;
+        final long expiresAt;
+        volatile long lastUsed = System.nanoTime();
+
+        CachedAuth(AuthData auth, long expiresAt) {
+            this.auth = auth;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private record Candidate(String token, CachedAuth cached, long lastUsed) {}
+
+    public CachedAuthDAO(AuthDAO delegate, int maxSize, long ttlMillis, long negativeTtlMillis) {
+        this(delegate, maxSize, maxSize, ttlMillis, negativeTtlMillis);
+    }
+
+    public CachedAuthDAO(AuthDAO delegate, int maxSize, int maxMissing, long ttlMillis, long negativeTtlMillis) {
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.maxMissing = maxMissing;
+        this.ttlMillis = ttlMillis;
+        this.negativeTtlMillis = negativeTtlMillis;
+    }
+
+    @Override
+    public void clear() {
+        try {
+            delegate.clear();
+        } finally {
+            // tickets first, so no lookup that started before the clear can cache afterwards
+            lookups.clear();
+            found.clear();
+            missing.clear();
+        }
+    }
+
+    @Override
+    public void createAuth(AuthData auth) throws DataAccessException {
+        delegate.createAuth(auth);
+        CachedAuth cached = new CachedAuth(auth, System.currentTimeMillis() + ttlMillis);
+        // also takes the ticket of a lookup that missed before the insert, so it can't cache its miss over this
+        lookups.compute(auth.authToken(), (token, ticket) -> {
+            missing.remove(token);
+            found.put(token, cached);
+            return null;
+        });
+        evictIfFull(found, maxSize);
+    }
+
+    @Override
+    public AuthData getAuth(String authToken) {
+        long now = System.currentTimeMillis();
+        CachedAuth cached = found.get(authToken);
+        if (cached == null) {
+            cached = missing.get(authToken);
+        }
+        if (cached != null) {
+            if (cached.expiresAt > now) {
+                cached.lastUsed = System.nanoTime();
+                return cached.auth;
+            }
+            found.remove(authToken, cached);
+            missing.remove(authToken, cached);
+        }
+
+        Object ticket = new Object();
+        lookups.put(authToken, ticket);
+        AuthData auth;
+        try {
+            auth = delegate.getAuth(authToken);
+        } catch (RuntimeException e) {
+            lookups.remove(authToken, ticket);
+            throw e;
+        }
+        lookups.computeIfPresent(authToken, (token, current) -> {
+            if (current != ticket) {
+                // a newer lookup for the same token will cache its own answer
+                return current;
+            }
+            if (auth != null) {
+                found.put(token, new CachedAuth(auth, now + ttlMillis));
+            } else if (!found.containsKey(token)) {
+                missing.put(token, new CachedAuth(null, now + negativeTtlMillis));
+            }
+            return null;
+        });
+        if (auth != null) {
+            evictIfFull(found, maxSize);
+        } else {
+            evictIfFull(missing, maxMissing);
+        }
+        return auth;
+    }
+
+    @Override
+    public void deleteAuth(AuthData auth) throws DataAccessException {
+        try {
+            delegate.deleteAuth(auth);
+        } finally {
+            // after the delete, so a lookup that read the row first can't put it back
+            lookups.compute(auth.authToken(), (token, ticket) -> {
+                found.remove(token);
+                missing.remove(token);
+                return null;
+            });
+        }
+    }
+
+    private void evictIfFull(Map<String, CachedAuth> entries, int limit) {
+        if (entries.size() <= limit || !evicting.tryLock()) {
+            return;
+        }
+        try {
+            // a tenth at once, so a full cache isn't scanned on every insert
+            int excess = entries.size() - limit + limit / 10;
+            if (excess <= 0) {
+                return;
+            }
+            List<Candidate> candidates = entries.entrySet().stream()
+                    .map(entry -> new Candidate(entry.getKey(), entry.getValue(), entry.getValue().lastUsed))
+                    .sorted(Comparator.comparingLong(Candidate::lastUsed))
+                    .limit(excess)
+                    .toList();
+            for (Candidate candidate : candidates) {
+                entries.remove(candidate.token(), candidate.cached());
+            }
+        } finally {
+            evicting.unlock();
+        }
+    }
+}
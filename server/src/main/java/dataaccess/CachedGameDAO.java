@@ -0,0 +1,388 @@
+package dataaccess;
+
+import chess.ChessMove;
+import model.GameData;
+import model.GameSummary;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps games in memory in front of another GameDAO so reads don't go to the
+ * database, and writes updates back behind the scenes.
+ * <p>
+ * Updates are held as dirty and written to the backing DAO by a background
+ * flush every flushIntervalMillis, except that a game that has just ended is
+ * written before updateGame returns so a finished result is never lost. A
+ * flush interval of 0 writes every update through immediately. Games that
+ * haven't been touched for idleMillis and have nothing left to write are
+ * dropped from memory.
+ * <p>
+ * Moves passed to recordMoves are held until the next flush and handed to the
+ * backing DAO together, so it can append them to the game's history; games
+ * changed through updateGame are rewritten whole.
+ * <p>
+ * Games are copied on the way in and out, so changes only become visible to
+ * other readers once they're passed to updateGame.
+ * <p>
+ * Given a snapshot file, the cached games that have nothing left to write are
+ * saved to it every snapshotIntervalMillis and on close, and loaded back when
+ * the cache is created, so a restarted server doesn't have to fetch its live
+ * games one at a time. A game's entry is marked stale before a newer version
+ * is written to the backing DAO, so the snapshot never hides a newer game.
+ * This assumes nothing else changes the backing DAO's games while the server
+ * is down.
+ */
+public class CachedGameDAO implements GameDAO, AutoCloseable {
+    private final GameDAO delegate;
+    private final long flushIntervalMillis;
+    private final long idleMillis;
+    private final Map<Integer, CachedGame> games = new ConcurrentHashMap<>();
+    private final Map<Integer, Pending> dirty = new ConcurrentHashMap<>();
+    // keeps a periodic flush from writing an older copy over a synchronous one
+    private final Object flushLock = new Object();
+    private final ScheduledExecutorService flusher;
+    private final Path snapshotPath;
+    // only used while holding flushLock
+    private GameSnapshotFile snapshot;
+
+    private static final class CachedGame {
+        final GameData game;
+        volatile long lastAccess;
+
+        CachedGame(GameData game) {
+            this.game = game;
+            this.lastAccess = System.currentTimeMillis();
+        }
+    }
+
+    // what a game is waiting to have written. Only changed inside dirty's
+    // compute methods, or once it's been removed from dirty for writing.
+    private static final class Pending {
+        GameData game;
+        final List<ChessMove> moves = new ArrayList<>();
+        // whether anything changed besides moves being made
+        boolean rewrite;
+
+        void add(GameData latest, List<ChessMove> newMoves, boolean rewriteGame) {
+            game = latest;
+            moves.addAll(newMoves);
+            rewrite |= rewriteGame;
+        }
+    }
+
+    public CachedGameDAO(GameDAO delegate, long flushIntervalMillis, long idleMillis) {
+        this(delegate, flushIntervalMillis, idleMillis, null, 0);
+    }
+
+    /**
+     * @param snapshotPath where to keep the snapshot of cached games, or null
+     *                     not to keep one
+     */
+    public CachedGameDAO(GameDAO delegate, long flushIntervalMillis, long idleMillis, Path snapshotPath,
+                         long snapshotIntervalMillis) {
+        this.delegate = delegate;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.idleMillis = idleMillis;
+        this.snapshotPath = snapshotPath;
+        if (snapshotPath != null) {
+            loadSnapshot();
+        }
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-cache-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = (flushIntervalMillis > 0) ? flushIntervalMillis : Math.max(1000, idleMillis);
+        flusher.scheduleWithFixedDelay(this::flushAndEvict, period, period, TimeUnit.MILLISECONDS);
+        if (snapshotPath != null && snapshotIntervalMillis > 0) {
+            flusher.scheduleWithFixedDelay(this::writeSnapshot, snapshotIntervalMillis, snapshotIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (flushLock) {
+            dirty.clear();
+            games.clear();
+            delegate.clear();
+            if (snapshotPath != null) {
+                try {
+                    Files.deleteIfExists(snapshotPath);
+                } catch (IOException e) {
+                    throw new RuntimeException("Error deleting game snapshot", e);
+                }
+                snapshot = null;
+            }
+        }
+    }
+
+    @Override
+    public GameData createGame(GameData game) throws DataAccessException {
+        // go straight through, the backing DAO hands out the ID
+        GameData created = delegate.createGame(game);
+        games.put(created.gameID(), new CachedGame(created.copy()));
+        return created;
+    }
+
+    @Override
+    public GameData getGame(int gameID) throws DataAccessException {
+        CachedGame cached = games.get(gameID);
+        if (cached == null) {
+            CachedGame loaded = new CachedGame(delegate.getGame(gameID));
+            cached = games.putIfAbsent(gameID, loaded);
+            if (cached == null) {
+                cached = loaded;
+            }
+        }
+        cached.lastAccess = System.currentTimeMillis();
+        return cached.game.copy();
+    }
+
+    @Override
+    public Collection<GameData> listGames() {
+        Map<Integer, GameData> merged = new HashMap<>();
+        for (GameData game : delegate.listGames()) {
+            merged.put(game.gameID(), game);
+        }
+        // anything cached is at least as new as what's stored
+        for (Map.Entry<Integer, CachedGame> entry : games.entrySet()) {
+            merged.put(entry.getKey(), entry.getValue().game.copy());
+        }
+        return new HashSet<>(merged.values());
+    }
+
+    /**
+     * Flushes, then lists from the backing DAO, so the page is filtered and
+     * cut against the same state the cache holds. Filtering the backing DAO's
+     * page again here would drop games that no longer match, leaving a short
+     * page that looks like the last, and miss games that newly match.
+     */
+    @Override
+    public List<GameSummary> listSummaries(GameQuery query) {
+        flush();
+        return delegate.listSummaries(query);
+    }
+
+    @Override
+    public void updateGame(GameData game) throws DataAccessException {
+        store(game, List.of(), true);
+    }
+
+    @Override
+    public void recordMoves(GameData game, List<ChessMove> moves) throws DataAccessException {
+        store(game, moves, false);
+    }
+
+    @Override
+    public List<ChessMove> listMoves(int gameID) throws DataAccessException {
+        synchronized (flushLock) {
+            List<ChessMove> moves = new ArrayList<>(delegate.listMoves(gameID));
+            dirty.computeIfPresent(gameID, (id, pending) -> {
+                moves.addAll(pending.moves);
+                return pending;
+            });
+            return moves;
+        }
+    }
+
+    private void store(GameData game, List<ChessMove> moves, boolean rewrite) throws DataAccessException {
+        if (game == null) {
+            throw new DataAccessException("Game data is null");
+        }
+        if (!games.containsKey(game.gameID()) && !delegate.gameIDinUse(game.gameID())) {
+            throw new DataAccessException("gameID not found");
+        }
+
+        // the caller may keep changing its copy, so hold on to our own
+        GameData stored = game.copy();
+        boolean ended = stored.game() != null && stored.game().isGameEnded();
+        if (flushIntervalMillis <= 0 || ended) {
+            synchronized (flushLock) {
+                games.put(game.gameID(), new CachedGame(stored));
+                markStale(List.of(game.gameID()));
+                Pending pending = dirty.remove(game.gameID());
+                if (pending == null) {
+                    pending = new Pending();
+                }
+                pending.add(stored, moves, rewrite);
+                try {
+                    write(pending);
+                } catch (DataAccessException | RuntimeException e) {
+                    requeue(game.gameID(), pending);
+                    throw e;
+                }
+            }
+        } else {
+            dirty.compute(game.gameID(), (id, pending) -> {
+                if (pending == null) {
+                    pending = new Pending();
+                }
+                pending.add(stored, moves, rewrite);
+                return pending;
+            });
+            // only once it's dirty, so a snapshot never saves it as written
+            games.put(game.gameID(), new CachedGame(stored));
+        }
+    }
+
+    @Override
+    public boolean gameIDinUse(int gameID) {
+        return games.containsKey(gameID) || delegate.gameIDinUse(gameID);
+    }
+
+    /**
+     * Writes every dirty game to the backing DAO now. Moves are recorded game
+     * by game, then every game that needs rewriting is written in one batch.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            List<Integer> gameIDs = new ArrayList<>(dirty.keySet());
+            markStale(gameIDs);
+            List<Pending> rewrites = new ArrayList<>();
+            for (Integer gameID : gameIDs) {
+                Pending pending = dirty.remove(gameID);
+                if (pending == null) {
+                    continue;
+                }
+                try {
+                    if (writeMoves(pending)) {
+                        rewrites.add(pending);
+                    }
+                } catch (DataAccessException | RuntimeException e) {
+                    writeFailed(pending, e);
+                }
+            }
+            rewrite(rewrites);
+        }
+    }
+
+    private void rewrite(List<Pending> rewrites) {
+        if (rewrites.isEmpty()) {
+            return;
+        }
+        try {
+            delegate.updateGames(rewrites.stream().map(pending -> pending.game).toList());
+        } catch (DataAccessException | RuntimeException batchFailed) {
+            // one bad game fails the whole batch, so write them one at a time to keep the rest
+            for (Pending pending : rewrites) {
+                try {
+                    delegate.updateGame(pending.game);
+                } catch (DataAccessException | RuntimeException e) {
+                    writeFailed(pending, e);
+                }
+            }
+        }
+    }
+
+    // keeps it dirty to try again next time
+    private void writeFailed(Pending pending, Exception e) {
+        requeue(pending.game.gameID(), pending);
+        System.err.println("Failed to write game " + pending.game.gameID() + ": " + e.getMessage());
+    }
+
+    private void markStale(List<Integer> gameIDs) {
+        if (snapshot != null) {
+            snapshot.markStale(gameIDs);
+        }
+    }
+
+    private void loadSnapshot() {
+        try {
+            snapshot = GameSnapshotFile.open(snapshotPath);
+        } catch (IOException e) {
+            System.err.println("Failed to read game snapshot: " + e.getMessage());
+        }
+        if (snapshot != null) {
+            for (GameData game : snapshot.games()) {
+                games.put(game.gameID(), new CachedGame(game));
+            }
+        }
+    }
+
+    /**
+     * Saves every cached game that has nothing left to write to the snapshot
+     * file.
+     */
+    public void writeSnapshot() {
+        if (snapshotPath == null) {
+            return;
+        }
+        synchronized (flushLock) {
+            List<GameData> written = new ArrayList<>();
+            for (Map.Entry<Integer, CachedGame> entry : games.entrySet()) {
+                // read before checking dirty; store marks a game dirty before caching it
+                GameData game = entry.getValue().game;
+                if (!dirty.containsKey(entry.getKey())) {
+                    written.add(game);
+                }
+            }
+            try {
+                snapshot = GameSnapshotFile.write(snapshotPath, written);
+            } catch (IOException e) {
+                System.err.println("Failed to write game snapshot: " + e.getMessage());
+            }
+        }
+    }
+
+    private void write(Pending pending) throws DataAccessException {
+        if (writeMoves(pending)) {
+            delegate.updateGame(pending.game);
+        }
+    }
+
+    // records the pending moves, returning whether the game still needs rewriting
+    private boolean writeMoves(Pending pending) throws DataAccessException {
+        boolean rewrite = pending.rewrite || pending.moves.isEmpty();
+        if (!pending.moves.isEmpty()) {
+            delegate.recordMoves(pending.game, List.copyOf(pending.moves));
+            // so retrying a failed rewrite doesn't record them twice
+            pending.moves.clear();
+        }
+        return rewrite;
+    }
+
+    // puts back a write that failed, ahead of anything that's happened since
+    private void requeue(int gameID, Pending failed) {
+        dirty.merge(gameID, failed, (newer, older) -> {
+            older.add(newer.game, newer.moves, newer.rewrite);
+            return older;
+        });
+    }
+
+    /**
+     * Stops the background flush after writing anything still dirty, then
+     * saves the snapshot.
+     */
+    @Override
+    public void close() {
+        flusher.shutdown();
+        flush();
+        writeSnapshot();
+    }
+
+    private void flushAndEvict() {
+        flush();
+        long idleBefore = System.currentTimeMillis() - idleMillis;
+        for (Map.Entry<Integer, CachedGame> entry : games.entrySet()) {
+            CachedGame cached = entry.getValue();
+            if (cached.lastAccess < idleBefore && !dirty.containsKey(entry.getKey())) {
+                // only removes it if no update replaced it in the meantime
+                games.remove(entry.getKey(), cached);
+            }
+        }
+    }
+}
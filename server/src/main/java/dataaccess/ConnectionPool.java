@@ -0,0 +1,465 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded pool of database connections.
+ * <p>
+ * Callers get a wrapper around a pooled connection; closing the wrapper hands
+ * the real connection back to the pool instead of closing it, so the usual
+ * try-with-resources pattern keeps working unchanged. Uncommitted work is
+ * rolled back and autocommit and the isolation level are put back first. At most maxSize
+ * connections are handed out at once and callers past that wait up to
+ * waitTimeout for one to come back. Connections that have sat idle are
+ * checked with {@link Connection#isValid} before being reused, and a
+ * background task closes ones idle past idleTimeout while keeping at least
+ * minSize around.
+ * <p>
+ * Statements prepared through a wrapper are kept open on the connection
+ * underneath when they're closed, up to statementCacheSize per connection,
+ * and handed out again the next time anyone prepares the same SQL on it. How
+ * long preparing and executing each statement takes is added up in
+ * {@link #statementMetrics}.
+ */
+final class ConnectionPool implements AutoCloseable {
+    // idle connections younger than this are assumed to still be good
+    private static final long VALIDATE_AFTER_IDLE_MILLIS = 1000;
+
+    private final ConnectionFactory factory;
+    private final Settings settings;
+    private final Semaphore permits;
+    // most recently returned last, so the warmest connection is reused first
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+    private final ScheduledExecutorService maintenance;
+    // keyed by the real connection; connection proxies can't be trusted to implement equals
+    private final Map<Connection, StatementCache> statementCaches =
+            Collections.synchronizedMap(new IdentityHashMap<>());
+    private final StatementMetrics metrics = new StatementMetrics();
+    private volatile boolean closed;
+
+    /**
+     * Opens a new physical connection, ready to use.
+     */
+    @FunctionalInterface
+    interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * Pool configuration, read from the db.pool.* keys of db.properties.
+     */
+    record Settings(int minSize, int maxSize, long idleTimeoutMillis, long waitTimeoutMillis,
+                    int validationTimeoutSeconds, int statementCacheSize) {
+
+        static Settings from(Properties props) {
+            int maxSize = Integer.parseInt(props.getProperty("db.pool.maxSize", "10"));
+            int minSize = Integer.parseInt(props.getProperty("db.pool.minSize", "2"));
+            if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+                throw new IllegalArgumentException("db.pool.minSize must be between 0 and db.pool.maxSize");
+            }
+            return new Settings(minSize, maxSize,
+                    Long.parseLong(props.getProperty("db.pool.idleTimeoutMillis", "300000")),
+                    Long.parseLong(props.getProperty("db.pool.waitTimeoutMillis", "5000")),
+                    Integer.parseInt(props.getProperty("db.pool.validationTimeoutSeconds", "2")),
+                    Integer.parseInt(props.getProperty("db.pool.statementCacheSize", "64")));
+        }
+    }
+
+    private record IdleConnection(Connection connection, long returnedAt) {}
+
+    ConnectionPool(ConnectionFactory factory, Settings settings) {
+        this.factory = factory;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.maxSize(), true);
+
+        maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-pool-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, settings.idleTimeoutMillis() / 2);
+        maintenance.scheduleWithFixedDelay(this::maintain, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Hands out a connection, reusing an idle one when there is one. Close
+     * it to give it back.
+     *
+     * @throws SQLException if no connection frees up within the wait timeout
+     *                      or a new one can't be opened
+     */
+    Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(settings.waitTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + settings.waitTimeoutMillis()
+                        + "ms waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a database connection");
+        }
+
+        try {
+            Connection connection = takeIdle();
+            if (connection == null) {
+                connection = factory.open();
+            }
+            return wrap(connection);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of connections currently handed out
+     */
+    int activeCount() {
+        return settings.maxSize() - permits.availablePermits();
+    }
+
+    /**
+     * @return the number of open connections waiting to be reused
+     */
+    int idleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    /**
+     * @return prepare and execute times for the statements run so far
+     */
+    StatementMetrics statementMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Closes connections that have been idle too long, then opens new ones
+     * until minSize are open. Runs periodically in the background.
+     */
+    void maintain() {
+        if (closed) {
+            return;
+        }
+        long expiredBefore = System.currentTimeMillis() - settings.idleTimeoutMillis();
+        synchronized (idle) {
+            // the oldest connections are at the front
+            Iterator<IdleConnection> iterator = idle.iterator();
+            while (iterator.hasNext() && idle.size() + activeCount() > settings.minSize()) {
+                IdleConnection candidate = iterator.next();
+                if (candidate.returnedAt() > expiredBefore) {
+                    break;
+                }
+                iterator.remove();
+                closeQuietly(candidate.connection());
+            }
+        }
+
+        while (!closed && idleCount() + activeCount() < settings.minSize()) {
+            try {
+                giveBack(factory.open(), false, null);
+            } catch (SQLException e) {
+                // the database may be down, borrowers will see the error themselves
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        maintenance.shutdownNow();
+        synchronized (idle) {
+            for (IdleConnection connection : idle) {
+                closeQuietly(connection.connection());
+            }
+            idle.clear();
+        }
+    }
+
+    private Connection takeIdle() {
+        while (true) {
+            IdleConnection candidate;
+            synchronized (idle) {
+                candidate = idle.pollLast();
+            }
+            if (candidate == null) {
+                return null;
+            }
+            if (isUsable(candidate)) {
+                return candidate.connection();
+            }
+            closeQuietly(candidate.connection());
+        }
+    }
+
+    private boolean isUsable(IdleConnection candidate) {
+        if (System.currentTimeMillis() - candidate.returnedAt() < VALIDATE_AFTER_IDLE_MILLIS) {
+            return true;
+        }
+        try {
+            return candidate.connection().isValid(settings.validationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Takes a connection back from a borrower, discarding it if it broke or
+     * the pool has shut down.
+     *
+     * @param isolation the isolation level to put back, or null if the
+     *                  borrower didn't change it
+     */
+    private void release(Connection connection, boolean broken, Integer isolation) {
+        try {
+            giveBack(connection, broken, isolation);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void giveBack(Connection connection, boolean broken, Integer isolation) {
+        if (broken || closed || !reset(connection, isolation)) {
+            closeQuietly(connection);
+            return;
+        }
+        synchronized (idle) {
+            idle.addLast(new IdleConnection(connection, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Undoes anything a borrower left behind so the next one gets a clean
+     * connection.
+     */
+    private static boolean reset(Connection connection, Integer isolation) {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            if (isolation != null) {
+                connection.setTransactionIsolation(isolation);
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void closeQuietly(Connection connection) {
+        // its statements close with it
+        statementCaches.remove(connection);
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // it's being thrown away either way
+        }
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new PooledConnection(connection));
+    }
+
+    /**
+     * Forwards everything to the pooled connection except close, which
+     * returns it to the pool. The wrapper can't be used after it's closed.
+     */
+    private final class PooledConnection implements InvocationHandler {
+        private final Connection connection;
+        private boolean returned;
+        private boolean broken;
+        // the level before the borrower first changed it
+        private Integer originalIsolation;
+
+        PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!returned) {
+                        returned = true;
+                        release(connection, broken, originalIsolation);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned || connection.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled " + connection;
+                }
+                default -> {
+                    if (returned) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                }
+            }
+
+            if (method.getName().equals("setTransactionIsolation") && originalIsolation == null) {
+                try {
+                    originalIsolation = connection.getTransactionIsolation();
+                } catch (SQLException e) {
+                    throw failed(e);
+                }
+            }
+            if (method.getName().equals("prepareStatement") && args[0] instanceof String sql) {
+                if (args.length == 1) {
+                    return prepare((Connection) proxy, sql, sql, () -> connection.prepareStatement(sql));
+                }
+                if (args.length == 2 && args[1] instanceof Integer autoGeneratedKeys) {
+                    return prepare((Connection) proxy, autoGeneratedKeys + ":" + sql, sql,
+                            () -> connection.prepareStatement(sql, autoGeneratedKeys));
+                }
+            }
+            return forward(connection, method, args);
+        }
+
+        private PreparedStatement prepare(Connection proxy, String key, String sql, Preparer preparer)
+                throws Throwable {
+            StatementCache cache = statementCaches.computeIfAbsent(connection,
+                    ignored -> new StatementCache(settings.statementCacheSize()));
+            PreparedStatement statement = cache.take(key);
+            if (statement != null) {
+                metrics.reused(sql);
+            } else {
+                long start = System.nanoTime();
+                try {
+                    statement = preparer.prepare();
+                } catch (SQLException e) {
+                    throw failed(e);
+                }
+                metrics.prepared(sql, System.nanoTime() - start);
+            }
+            return (PreparedStatement) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new CachedStatement(proxy, cache, key, sql, statement));
+        }
+
+        private Object forward(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw failed(e.getCause());
+            }
+        }
+
+        private Throwable failed(Throwable cause) {
+            // SQLState class 08 means the connection itself failed
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null
+                    && sqlException.getSQLState().startsWith("08")) {
+                broken = true;
+            }
+            return cause;
+        }
+
+        /**
+         * Forwards everything to a statement on the pooled connection except
+         * close, which gives it back to the connection's statement cache, and
+         * times each execution.
+         */
+        private final class CachedStatement implements InvocationHandler {
+            private final Connection connectionProxy;
+            private final StatementCache cache;
+            private final String key;
+            private final String sql;
+            private final PreparedStatement statement;
+            private boolean closed;
+
+            CachedStatement(Connection connectionProxy, StatementCache cache, String key, String sql,
+                            PreparedStatement statement) {
+                this.connectionProxy = connectionProxy;
+                this.cache = cache;
+                this.key = key;
+                this.sql = sql;
+                this.statement = statement;
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close" -> {
+                        if (!closed) {
+                            closed = true;
+                            if (broken || returned) {
+                                statement.close();
+                            } else {
+                                cache.giveBack(key, statement);
+                            }
+                        }
+                        return null;
+                    }
+                    case "isClosed" -> {
+                        return closed || statement.isClosed();
+                    }
+                    case "getConnection" -> {
+                        return connectionProxy;
+                    }
+                    case "equals" -> {
+                        return proxy == args[0];
+                    }
+                    case "hashCode" -> {
+                        return System.identityHashCode(proxy);
+                    }
+                    case "toString" -> {
+                        return "Cached " + statement;
+                    }
+                    default -> {
+                        if (closed || returned) {
+                            throw new SQLException("Statement has already been closed");
+                        }
+                    }
+                }
+
+                if (!method.getName().startsWith("execute")) {
+                    return forward(statement, method, args);
+                }
+                long start = System.nanoTime();
+                try {
+                    return forward(statement, method, args);
+                } finally {
+                    metrics.executed(sql, System.nanoTime() - start);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Preparer {
+        PreparedStatement prepare() throws SQLException;
+    }
+}
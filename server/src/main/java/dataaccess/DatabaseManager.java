@@ -1,6 +1,7 @@
 package dataaccess;
 
 import java.sql.*;
+import java.util.Map;
 import java.util.Properties;
 
 public class DatabaseManager {
@@ -8,9 +9,17 @@ public class DatabaseManager {
     private static final String USER;
     private static final String PASSWORD;
     private static final String CONNECTION_URL;
+    private static final ConnectionPool.Settings POOL_SETTINGS;
+    // opened on first use and again after close, so tests can start and stop servers
+    private static volatile ConnectionPool pool;
+    private static final Properties PROPERTIES;
 
     /*
-     * Load the database information for the db.properties file.
+     * Load the database information for the db.properties file. The optional
+     * db.pool.* keys (minSize, maxSize, idleTimeoutMillis, waitTimeoutMillis,
+     * validationTimeoutSeconds, statementCacheSize) tune the connection pool,
+     * and db.rewriteBatchedStatements and db.useServerPrepStmts (both default
+     * true) are passed to the driver.
      */
     static {
         try {
@@ -20,13 +29,20 @@ public class DatabaseManager {
                 }
                 Properties props = new Properties();
                 props.load(propStream);
+                PROPERTIES = props;
                 DATABASE_NAME = props.getProperty("db.name");
                 USER = props.getProperty("db.user");
                 PASSWORD = props.getProperty("db.password");
 
                 var host = props.getProperty("db.host");
                 var port = Integer.parseInt(props.getProperty("db.port"));
-                CONNECTION_URL = String.format("jdbc:mysql://%s:%d", host, port);
+                // lets the driver send a batch of statements in one round trip
+                var rewriteBatches = props.getProperty("db.rewriteBatchedStatements", "true");
+                // has MySQL parse each statement once per connection, since the pool keeps them open
+                var serverPrepared = props.getProperty("db.useServerPrepStmts", "true");
+                CONNECTION_URL = String.format("jdbc:mysql://%s:%d?rewriteBatchedStatements=%s&useServerPrepStmts=%s",
+                        host, port, rewriteBatches, serverPrepared);
+                POOL_SETTINGS = ConnectionPool.Settings.from(props);
             }
         } catch (Exception ex) {
             throw new RuntimeException("unable to process db.properties. " + ex.getMessage());
@@ -39,8 +55,8 @@ public class DatabaseManager {
     public static void createDatabase() throws DataAccessException {
         try {
             var statement = "CREATE DATABASE IF NOT EXISTS " + DATABASE_NAME;
-            var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
-            try (var preparedStatement = conn.prepareStatement(statement)) {
+            try (var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
+                 var preparedStatement = conn.prepareStatement(statement)) {
                 preparedStatement.executeUpdate();
             }
         } catch (SQLException e) {
@@ -49,9 +65,10 @@ public class DatabaseManager {
     }
 
     /**
-     * Create a connection to the database and sets the catalog based upon the
-     * properties specified in db.properties. Connections to the database should
-     * be short-lived, and you must close the connection when you are done with it.
+     * Borrow a connection to the database from the pool, with the catalog set
+     * based upon the properties specified in db.properties. Connections to the
+     * database should be short-lived, and you must close the connection when you
+     * are done with it so it goes back to the pool.
      * The easiest way to do that is with a try-with-resource block.
      * <br/>
      * <code>
@@ -62,14 +79,63 @@ public class DatabaseManager {
      */
     public static Connection getConnection() throws DataAccessException {
         try {
-            var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
-            conn.setCatalog(DATABASE_NAME);
-            return conn;
+            return pool().borrow();
         } catch (SQLException e) {
             throw new DataAccessException(e.getMessage());
         }
     }
 
+    /**
+     * Looks up a setting from db.properties, for the optional keys that tune
+     * the data access layer.
+     */
+    public static String getProperty(String key, String defaultValue) {
+        return PROPERTIES.getProperty(key, defaultValue);
+    }
+
+    /**
+     * @return how long each SQL statement has spent being prepared and
+     * executed since the pool was opened
+     */
+    public static Map<String, StatementMetrics.Timing> statementMetrics() {
+        return pool().statementMetrics().snapshot();
+    }
+
+    /**
+     * Closes the pool's idle connections, and each borrowed one as it's
+     * returned. The next getConnection opens a new pool.
+     */
+    public static synchronized void close() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+    }
+
+    private static ConnectionPool pool() {
+        ConnectionPool current = pool;
+        if (current != null) {
+            return current;
+        }
+        synchronized (DatabaseManager.class) {
+            if (pool == null) {
+                pool = new ConnectionPool(DatabaseManager::openConnection, POOL_SETTINGS);
+            }
+            return pool;
+        }
+    }
+
+    private static Connection openConnection() throws SQLException {
+        var conn = DriverManager.getConnection(CONNECTION_URL, USER, PASSWORD);
+        try {
+            conn.setCatalog(DATABASE_NAME);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return conn;
+    }
+
     public static void configureDatabase(String[] createStatements) throws Exception {
         DatabaseManager.createDatabase();
         try (var conn = DatabaseManager.getConnection()) {
@@ -1,6 +1,10 @@
 package dataaccess;
+import chess.ChessMove;
 import model.GameData;
+import model.GameSummary;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 
 public interface GameDAO {
     public void clear ();
@@ -9,4 +13,57 @@ public interface GameDAO {
     public Collection<GameData> listGames();
     public void updateGame (GameData game) throws DataAccessException;
     public boolean gameIDinUse (int gameID);
+
+    /**
+     * Rewrites several games at once. By default each is updated in turn.
+     *
+     * @throws DataAccessException if any of the games doesn't exist
+     */
+    default void updateGames (Collection<GameData> games) throws DataAccessException {
+        for (GameData game : games) {
+            updateGame(game);
+        }
+    }
+
+    /**
+     * Saves a game after a move, keeping the move in its history.
+     *
+     * @param game the game as it is after the move
+     */
+    default void recordMove (GameData game, ChessMove move) throws DataAccessException {
+        recordMoves(game, List.of(move));
+    }
+
+    /**
+     * Saves a game after several moves, keeping the moves in its history. By
+     * default the whole game is rewritten and the moves aren't kept.
+     *
+     * @param game  the game as it is after the last move
+     * @param moves the moves in the order they were made
+     */
+    default void recordMoves (GameData game, List<ChessMove> moves) throws DataAccessException {
+        updateGame(game);
+    }
+
+    /**
+     * @return the moves recorded for the game, in order, or an empty list if
+     * this DAO doesn't keep history
+     */
+    default List<ChessMove> listMoves (int gameID) throws DataAccessException {
+        return List.of();
+    }
+
+    /**
+     * Lists one page of games without loading more than the summary of each:
+     * the first query.limit() matching games, so a page shorter than the limit
+     * is the last one. By default every game is loaded and filtered in memory.
+     */
+    default List<GameSummary> listSummaries (GameQuery query) {
+        return listGames().stream()
+                .map(GameSummary::of)
+                .filter(query::matches)
+                .sorted(Comparator.comparingInt(GameSummary::gameID))
+                .limit(query.limit())
+                .toList();
+    }
 }
@@ -0,0 +1,27 @@
+package dataaccess;
+
+import model.GameSummary;
+
+/**
+ * Which games {@link GameDAO#listSummaries} should return. Games come back in
+ * gameID order, starting after afterGameID.
+ *
+ * @param openSeatsOnly only games with a seat free
+ * @param player        only games this user plays in, or null for anyone's
+ * @param ended         only games that have (true) or haven't (false) ended, or null for both
+ */
+public record GameQuery(int afterGameID, int limit, boolean openSeatsOnly, String player, Boolean ended) {
+
+    public boolean matches(GameSummary game) {
+        if (game.gameID() <= afterGameID) {
+            return false;
+        }
+        if (openSeatsOnly && game.whiteUsername() != null && game.blackUsername() != null) {
+            return false;
+        }
+        if (player != null && !player.equals(game.whiteUsername()) && !player.equals(game.blackUsername())) {
+            return false;
+        }
+        return ended == null || ended == game.gameEnded();
+    }
+}
@@ -0,0 +1,224 @@
+package dataaccess;
+
+import chess.ChessGameCodec;
+import model.GameData;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * A file of games, memory-mapped so a restarting server can have its live
+ * games back without reading them from the database.
+ * <p>
+ * The file is a header (magic number, version, game count) followed by one
+ * entry per game: its length, a stale flag, a CRC of the rest of the entry,
+ * then the gameID, players, name and the game in {@link ChessGameCodec}'s
+ * encoding. Before a game newer than its entry is written to the database,
+ * the entry is marked stale through the mapping and forced to disk, so a
+ * snapshot left behind by a crash never hides newer data. The file is
+ * written to the side and renamed into place, so it's either the old
+ * snapshot or the new one, never half of each.
+ */
+public class GameSnapshotFile {
+    private static final int MAGIC = 0x43485353;
+    private static final byte VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 1 + 4;
+    // length, stale flag and CRC
+    private static final int ENTRY_HEADER_BYTES = 4 + 1 + 4;
+    private static final int STALE_OFFSET = 4;
+
+    private final MappedByteBuffer buffer;
+    private final Map<Integer, Integer> offsets = new HashMap<>();
+
+    private GameSnapshotFile(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Maps an existing snapshot.
+     *
+     * @return the snapshot, or null if there isn't one or it's unreadable
+     */
+    public static GameSnapshotFile open(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // the mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.get(4) != VERSION) {
+            return null;
+        }
+
+        GameSnapshotFile snapshot = new GameSnapshotFile(buffer);
+        int count = buffer.getInt(5);
+        int offset = HEADER_BYTES;
+        for (int i = 0; i < count; i++) {
+            if (offset + ENTRY_HEADER_BYTES > buffer.limit()) {
+                return null;
+            }
+            int length = buffer.getInt(offset);
+            if (length < ENTRY_HEADER_BYTES || offset + length > buffer.limit()) {
+                return null;
+            }
+            snapshot.offsets.put(buffer.getInt(offset + ENTRY_HEADER_BYTES), offset);
+            offset += length;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Replaces the file with a snapshot of the given games and maps it.
+     */
+    public static GameSnapshotFile write(Path file, Collection<GameData> games) throws IOException {
+        List<byte[]> entries = new ArrayList<>(games.size());
+        int size = HEADER_BYTES;
+        for (GameData game : games) {
+            byte[] entry = encode(game);
+            entries.add(entry);
+            size += entry.length;
+        }
+
+        Path partial = file.resolveSibling(file.getFileName() + ".tmp");
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC).put(VERSION).putInt(entries.size());
+            for (byte[] entry : entries) {
+                buffer.put(entry);
+            }
+            buffer.force();
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        GameSnapshotFile snapshot = new GameSnapshotFile(buffer);
+        int offset = HEADER_BYTES;
+        for (byte[] entry : entries) {
+            snapshot.offsets.put(buffer.getInt(offset + ENTRY_HEADER_BYTES), offset);
+            offset += entry.length;
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return every game in the snapshot that isn't stale or damaged
+     */
+    public synchronized List<GameData> games() {
+        List<GameData> games = new ArrayList<>(offsets.size());
+        for (int offset : offsets.values()) {
+            if (buffer.get(offset + STALE_OFFSET) != 0) {
+                continue;
+            }
+            byte[] body = new byte[buffer.getInt(offset) - ENTRY_HEADER_BYTES];
+            buffer.get(offset + ENTRY_HEADER_BYTES, body);
+            if (buffer.getInt(offset + STALE_OFFSET + 1) != checksum(body)) {
+                continue;
+            }
+            try {
+                games.add(decode(body));
+            } catch (IllegalArgumentException e) {
+                // leave it to be read from the database
+            }
+        }
+        return games;
+    }
+
+    /**
+     * Marks the games' entries stale and makes sure that's on disk, so they
+     * won't be loaded again.
+     */
+    public synchronized void markStale(Collection<Integer> gameIDs) {
+        boolean changed = false;
+        for (int gameID : gameIDs) {
+            Integer offset = offsets.remove(gameID);
+            if (offset != null) {
+                buffer.put(offset + STALE_OFFSET, (byte) 1);
+                changed = true;
+            }
+        }
+        if (changed) {
+            buffer.force();
+        }
+    }
+
+    private static byte[] encode(GameData game) {
+        byte[] white = bytesOf(game.whiteUsername());
+        byte[] black = bytesOf(game.blackUsername());
+        byte[] name = bytesOf(game.gameName());
+        byte[] board = (game.game() != null) ? ChessGameCodec.encode(game.game()) : new byte[0];
+        int bodyLength = 4 + stringLength(white) + stringLength(black) + stringLength(name) + 1 + board.length;
+
+        ByteBuffer body = ByteBuffer.allocate(bodyLength);
+        body.putInt(game.gameID());
+        putString(body, white);
+        putString(body, black);
+        putString(body, name);
+        body.put((byte) ((game.game() != null) ? 1 : 0)).put(board);
+
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_HEADER_BYTES + bodyLength);
+        entry.putInt(ENTRY_HEADER_BYTES + bodyLength).put((byte) 0).putInt(checksum(body.array())).put(body.array());
+        return entry.array();
+    }
+
+    private static GameData decode(byte[] bytes) {
+        ByteBuffer body = ByteBuffer.wrap(bytes);
+        int gameID = body.getInt();
+        String white = getString(body);
+        String black = getString(body);
+        String name = getString(body);
+        if (body.get() == 0) {
+            return new GameData(gameID, white, black, name, null);
+        }
+        byte[] board = new byte[ChessGameCodec.ENCODED_LENGTH];
+        body.get(board);
+        return new GameData(gameID, white, black, name, ChessGameCodec.decode(board));
+    }
+
+    // null is written as a length of -1
+    private static byte[] bytesOf(String value) {
+        return (value != null) ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int stringLength(byte[] value) {
+        return 4 + ((value != null) ? value.length : 0);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        buffer.putInt((value != null) ? value.length : -1);
+        if (value != null) {
+            buffer.put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private static int checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
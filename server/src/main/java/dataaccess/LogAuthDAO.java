@@ -0,0 +1,43 @@
+package dataaccess;
+
+import model.AuthData;
+
+/**
+ * Auth tokens kept by a {@link LogStore}. Reads come from memory and every
+ * change is durable in the store's log before it returns.
+ */
+public class LogAuthDAO implements AuthDAO {
+    private final LogStore store;
+    private final MemoryAuthDAO auths;
+
+    LogAuthDAO(LogStore store, MemoryAuthDAO auths) {
+        this.store = store;
+        this.auths = auths;
+    }
+
+    @Override
+    public void clear() {
+        store.commitClear(auths::clear, LogStore.CLEAR_AUTHS);
+    }
+
+    @Override
+    public void createAuth(AuthData auth) throws DataAccessException {
+        store.commit(() -> {
+            auths.createAuth(auth);
+            return auth;
+        }, (out, created) -> LogStore.writeAuth(out, LogStore.CREATE_AUTH, created));
+    }
+
+    @Override
+    public AuthData getAuth(String authToken) {
+        return auths.getAuth(authToken);
+    }
+
+    @Override
+    public void deleteAuth(AuthData auth) throws DataAccessException {
+        store.commit(() -> {
+            auths.deleteAuth(auth);
+            return auth;
+        }, (out, deleted) -> LogStore.writeAuth(out, LogStore.DELETE_AUTH, deleted));
+    }
+}
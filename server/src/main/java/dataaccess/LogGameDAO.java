@@ -0,0 +1,69 @@
+package dataaccess;
+
+import chess.ChessMove;
+import model.GameData;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Games kept by a {@link LogStore}. Reads come from memory and every change
+ * is durable in the store's log before it returns.
+ */
+public class LogGameDAO implements GameDAO {
+    private final LogStore store;
+    private final MemoryGameDAO games;
+
+    LogGameDAO(LogStore store, MemoryGameDAO games) {
+        this.store = store;
+        this.games = games;
+    }
+
+    @Override
+    public void clear() {
+        store.commitClear(games::clear, LogStore.CLEAR_GAMES);
+    }
+
+    @Override
+    public GameData createGame(GameData game) throws DataAccessException {
+        // logs the game with the ID it was given, so replaying gives it the same one
+        return store.commit(() -> games.createGame(game),
+                (out, created) -> LogStore.writeGame(out, LogStore.PUT_GAME, created));
+    }
+
+    @Override
+    public GameData getGame(int gameID) throws DataAccessException {
+        return games.getGame(gameID);
+    }
+
+    @Override
+    public Collection<GameData> listGames() {
+        return games.listGames();
+    }
+
+    @Override
+    public void updateGame(GameData game) throws DataAccessException {
+        store.commit(() -> {
+            games.updateGame(game);
+            return game;
+        }, (out, updated) -> LogStore.writeGame(out, LogStore.PUT_GAME, updated));
+    }
+
+    @Override
+    public void recordMoves(GameData game, List<ChessMove> moves) throws DataAccessException {
+        store.commit(() -> {
+            games.recordMoves(game, moves);
+            return game;
+        }, (out, updated) -> LogStore.writeMoves(out, updated, moves));
+    }
+
+    @Override
+    public List<ChessMove> listMoves(int gameID) {
+        return games.listMoves(gameID);
+    }
+
+    @Override
+    public boolean gameIDinUse(int gameID) {
+        return games.gameIDinUse(gameID);
+    }
+}
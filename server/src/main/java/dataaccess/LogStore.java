@@ -0,0 +1,332 @@
+package dataaccess;
+
+import chess.ChessGameCodec;
+import chess.ChessMove;
+import chess.PackedMove;
+import model.AuthData;
+import model.GameData;
+import model.UserData;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Keeps users, auth tokens and games in memory and makes them durable with a
+ * {@link WriteAheadLog} in a local directory, so a single server can run
+ * without a database.
+ * <p>
+ * Every change is applied in memory and appended to the log while holding
+ * this store's lock, so the log replays in the order the changes were made,
+ * then waits outside the lock for the log to reach disk. Changes made at the
+ * same time are written together. Reads come straight from memory.
+ * <p>
+ * After snapshotEvery changes the whole state is written as a snapshot and
+ * the log emptied, so starting up never has to replay more than that. On
+ * startup the snapshot is loaded and the log replayed on top of it.
+ * <p>
+ * If writing the log fails, memory is reloaded from what's on disk, so
+ * readers never keep seeing a change that a restart would lose, and every
+ * change after that fails.
+ */
+public class LogStore implements AutoCloseable {
+    // the first byte of each log record, saying what change it is
+    static final byte CLEAR_GAMES = 1;
+    static final byte PUT_GAME = 2;
+    static final byte RECORD_MOVES = 3;
+    static final byte CLEAR_AUTHS = 4;
+    static final byte CREATE_AUTH = 5;
+    static final byte DELETE_AUTH = 6;
+    static final byte CLEAR_USERS = 7;
+    static final byte CREATE_USER = 8;
+
+    private final MemoryGameDAO games = new MemoryGameDAO();
+    private final MemoryAuthDAO auths = new MemoryAuthDAO();
+    private final MemoryUserDAO users = new MemoryUserDAO();
+    private final LogGameDAO gameDAO = new LogGameDAO(this, games);
+    private final LogAuthDAO authDAO = new LogAuthDAO(this, auths);
+    private final LogUserDAO userDAO = new LogUserDAO(this, users);
+
+    private final WriteAheadLog log;
+    private final int snapshotEvery;
+    private int sinceSnapshot;
+    // set once writing the log has failed
+    private boolean failed;
+
+    /**
+     * A change to make in memory, returning what the log record is made from.
+     */
+    interface Change<T> {
+        T apply() throws DataAccessException;
+    }
+
+    /**
+     * Writes the log record for a change that was made.
+     */
+    interface Record<T> {
+        void write(DataOutputStream out, T changed) throws IOException;
+    }
+
+    public LogStore(Path directory, int snapshotEvery) throws DataAccessException {
+        this(openLog(directory), snapshotEvery);
+    }
+
+    LogStore(WriteAheadLog log, int snapshotEvery) throws DataAccessException {
+        this.log = log;
+        this.snapshotEvery = snapshotEvery;
+        try {
+            load(log.recovered());
+        } catch (IOException e) {
+            throw new DataAccessException("Error recovering storage: " + e.getMessage());
+        }
+    }
+
+    private static WriteAheadLog openLog(Path directory) throws DataAccessException {
+        try {
+            return new WriteAheadLog(directory);
+        } catch (IOException e) {
+            throw new DataAccessException("Error recovering storage in " + directory + ": " + e.getMessage());
+        }
+    }
+
+    private void load(WriteAheadLog.Recovered recovered) throws IOException {
+        if (recovered.snapshot() != null) {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(recovered.snapshot()));
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                replay(in.readNBytes(in.readInt()));
+            }
+        }
+        for (byte[] record : recovered.records()) {
+            replay(record);
+        }
+        sinceSnapshot = recovered.records().size();
+    }
+
+    public GameDAO gameDAO() {
+        return gameDAO;
+    }
+
+    public AuthDAO authDAO() {
+        return authDAO;
+    }
+
+    public UserDAO userDAO() {
+        return userDAO;
+    }
+
+    /**
+     * Makes a change and returns once it's durable.
+     */
+    <T> T commit(Change<T> change, Record<T> record) throws DataAccessException {
+        long sequence;
+        T changed;
+        try {
+            synchronized (this) {
+                if (failed) {
+                    throw new DataAccessException("Storage is unusable after an earlier write failed");
+                }
+                changed = change.apply();
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                record.write(new DataOutputStream(bytes), changed);
+                sequence = log.append(bytes.toByteArray());
+                if (++sinceSnapshot >= snapshotEvery) {
+                    checkpoint();
+                }
+            }
+            log.sync(sequence);
+        } catch (IOException e) {
+            rollBack();
+            throw new DataAccessException("Error writing to the log: " + e.getMessage());
+        }
+        return changed;
+    }
+
+    // drops every change that didn't reach disk, this one's and any made alongside it
+    private synchronized void rollBack() {
+        failed = true;
+        games.clear();
+        auths.clear();
+        users.clear();
+        try {
+            load(log.reread());
+        } catch (IOException e) {
+            // left empty rather than showing changes that weren't written
+            games.clear();
+            auths.clear();
+            users.clear();
+            System.err.println("Failed to reload storage after a failed write: " + e.getMessage());
+        }
+    }
+
+    // for clear, which can't throw a checked exception
+    void commitClear(Runnable clear, byte type) {
+        try {
+            commit(() -> {
+                clear.run();
+                return null;
+            }, (out, changed) -> out.writeByte(type));
+        } catch (DataAccessException e) {
+            throw new RuntimeException("Error clearing storage", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            synchronized (this) {
+                if (sinceSnapshot > 0 && !failed) {
+                    // so the next start doesn't have to replay anything
+                    checkpoint();
+                }
+            }
+        } finally {
+            log.close();
+        }
+    }
+
+    private void checkpoint() throws IOException {
+        List<byte[]> records = new ArrayList<>();
+        for (UserData user : users.listUsers()) {
+            records.add(encode(out -> writeUser(out, user)));
+        }
+        for (AuthData auth : auths.listAuths()) {
+            records.add(encode(out -> writeAuth(out, CREATE_AUTH, auth)));
+        }
+        List<GameData> sorted = new ArrayList<>(games.listGames());
+        sorted.sort(Comparator.comparingInt(GameData::gameID));
+        for (GameData game : sorted) {
+            records.add(encode(out -> writeGame(out, PUT_GAME, game)));
+            List<ChessMove> moves = games.listMoves(game.gameID());
+            if (!moves.isEmpty()) {
+                records.add(encode(out -> writeMoves(out, game, moves)));
+            }
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(records.size());
+        for (byte[] record : records) {
+            out.writeInt(record.length);
+            out.write(record);
+        }
+        log.checkpoint(bytes.toByteArray());
+        sinceSnapshot = 0;
+    }
+
+    private void replay(byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        byte type = in.readByte();
+        try {
+            switch (type) {
+                case CLEAR_GAMES -> games.clear();
+                case PUT_GAME -> {
+                    GameData game = readGame(in);
+                    if (games.gameIDinUse(game.gameID())) {
+                        games.updateGame(game);
+                    } else {
+                        games.createGame(game);
+                    }
+                }
+                case RECORD_MOVES -> {
+                    GameData game = readGame(in);
+                    List<ChessMove> moves = new ArrayList<>();
+                    int count = in.readInt();
+                    for (int i = 0; i < count; i++) {
+                        moves.add(PackedMove.toChessMove(in.readUnsignedShort()));
+                    }
+                    games.recordMoves(game, moves);
+                }
+                case CLEAR_AUTHS -> auths.clear();
+                case CREATE_AUTH -> auths.createAuth(readAuth(in));
+                case DELETE_AUTH -> auths.deleteAuth(readAuth(in));
+                case CLEAR_USERS -> users.clear();
+                case CREATE_USER -> users.restoreUser(new UserData(readString(in), readString(in), readString(in)));
+                default -> throw new IOException("Unknown log record type " + type);
+            }
+        } catch (DataAccessException e) {
+            throw new IOException("Log record of type " + type + " doesn't replay: " + e.getMessage(), e);
+        }
+    }
+
+    private interface Encoding {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static byte[] encode(Encoding record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        record.write(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    static void writeGame(DataOutputStream out, byte type, GameData game) throws IOException {
+        out.writeByte(type);
+        out.writeInt(game.gameID());
+        writeString(out, game.whiteUsername());
+        writeString(out, game.blackUsername());
+        writeString(out, game.gameName());
+        out.writeBoolean(game.game() != null);
+        if (game.game() != null) {
+            out.write(ChessGameCodec.encode(game.game()));
+        }
+    }
+
+    static void writeMoves(DataOutputStream out, GameData game, List<ChessMove> moves) throws IOException {
+        writeGame(out, RECORD_MOVES, game);
+        out.writeInt(moves.size());
+        for (ChessMove move : moves) {
+            out.writeShort(PackedMove.encode(move));
+        }
+    }
+
+    static void writeAuth(DataOutputStream out, byte type, AuthData auth) throws IOException {
+        out.writeByte(type);
+        writeString(out, auth.authToken());
+        writeString(out, auth.username());
+    }
+
+    static void writeUser(DataOutputStream out, UserData user) throws IOException {
+        out.writeByte(CREATE_USER);
+        writeString(out, user.username());
+        writeString(out, user.password());
+        writeString(out, user.email());
+    }
+
+    private static GameData readGame(DataInputStream in) throws IOException {
+        int gameID = in.readInt();
+        String white = readString(in);
+        String black = readString(in);
+        String name = readString(in);
+        GameData game = new GameData(gameID, white, black, name, null);
+        if (in.readBoolean()) {
+            try {
+                game = new GameData(gameID, white, black, name,
+                        ChessGameCodec.decode(in.readNBytes(ChessGameCodec.ENCODED_LENGTH)));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Bad game in log record: " + e.getMessage(), e);
+            }
+        }
+        return game;
+    }
+
+    private static AuthData readAuth(DataInputStream in) throws IOException {
+        return new AuthData(readString(in), readString(in));
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
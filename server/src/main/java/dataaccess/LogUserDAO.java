@@ -0,0 +1,36 @@
+package dataaccess;
+
+import model.UserData;
+
+/**
+ * Users kept by a {@link LogStore}. Reads come from memory and every change
+ * is durable in the store's log before it returns. Passwords are logged
+ * already hashed.
+ */
+public class LogUserDAO implements UserDAO {
+    private final LogStore store;
+    private final MemoryUserDAO users;
+
+    LogUserDAO(LogStore store, MemoryUserDAO users) {
+        this.store = store;
+        this.users = users;
+    }
+
+    @Override
+    public void clear() {
+        store.commitClear(users::clear, LogStore.CLEAR_USERS);
+    }
+
+    @Override
+    public void createUser(UserData user) throws DataAccessException {
+        store.commit(() -> {
+            users.createUser(user);
+            return users.getUser(user.username());
+        }, LogStore::writeUser);
+    }
+
+    @Override
+    public UserData getUser(String username) {
+        return users.getUser(username);
+    }
+}
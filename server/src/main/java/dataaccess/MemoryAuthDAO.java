@@ -1,10 +1,16 @@
 package dataaccess;
 import model.AuthData;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Keeps auth tokens in memory, indexed by token. Safe to use from many
+ * threads at once.
+ */
 public class MemoryAuthDAO implements AuthDAO{
-    private final Collection<AuthData> authdata = new HashSet<>();
+    private final Map<String, AuthData> authdata = new ConcurrentHashMap<>();
 
     @Override
     public void clear () {
@@ -12,23 +18,24 @@ public class MemoryAuthDAO implements AuthDAO{
     }
     @Override
     public void createAuth (AuthData auth) {
-        this.authdata.add(auth);
+        this.authdata.put(auth.authToken(), auth);
     }
     @Override
     public AuthData getAuth (String authToken) {
-        for (AuthData auth : this.authdata) {
-            if (authToken.equals(auth.authToken())) {
-                return auth;
-            }
+        if (authToken == null) {
+            return null;
         }
-        return null;
+        return this.authdata.get(authToken);
     }
     @Override
     public void deleteAuth (AuthData auth) throws DataAccessException {
-        if (!this.authdata.remove(auth)) {
+        if (auth == null || !this.authdata.remove(auth.authToken(), auth)) {
             throw new DataAccessException("auth not found");
         }
     }
+    Collection<AuthData> listAuths () {
+        return new ArrayList<>(this.authdata.values());
+    }
     public boolean isEmpty () {
         return this.authdata.isEmpty();
     }
@@ -1,38 +1,67 @@
 package dataaccess;
+import chess.ChessMove;
 import model.GameData;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Keeps games in memory, indexed by gameID, for running without a database.
+ * Safe to use from many threads at once.
+ * <p>
+ * A game created with a gameID of 0 or less gets the next free ID. Games are
+ * copied on the way in and out, like a database would, so changing a game
+ * doesn't change what's stored until it's passed to updateGame.
+ */
 public class MemoryGameDAO implements GameDAO{
-     private final Collection<GameData> gamedata = new HashSet<>();;
+    private final Map<Integer, GameData> gamedata = new ConcurrentHashMap<>();
+    private final Map<Integer, List<ChessMove>> moves = new ConcurrentHashMap<>();
+    private final AtomicInteger lastGameID = new AtomicInteger();
 
     @Override
     public void clear () {
         this.gamedata.clear();
+        this.moves.clear();
+        this.lastGameID.set(0);
     }
 
     @Override
     public GameData createGame(GameData game) throws DataAccessException {
-        boolean inserted = this.gamedata.add(game);
-        if (!inserted) {
+        int gameID = game.gameID();
+        if (gameID <= 0) {
+            gameID = this.lastGameID.incrementAndGet();
+        } else {
+            // later generated IDs mustn't run into ones chosen by the caller
+            this.lastGameID.accumulateAndGet(gameID, Math::max);
+        }
+        GameData created = new GameData(gameID, game.whiteUsername(), game.blackUsername(), game.gameName(),
+                game.game());
+        if (this.gamedata.putIfAbsent(gameID, created.copy()) != null) {
             throw new DataAccessException("Game already exists");
         }
-        return game;
+        return created;
     }
 
     @Override
     public GameData getGame (int gameID) throws DataAccessException {
-        for (GameData game : this.gamedata) {
-            if (gameID == game.gameID()) {
-                return game;
-            }
+        GameData game = this.gamedata.get(gameID);
+        if (game == null) {
+            throw new DataAccessException("gameID not found");
         }
-        throw new DataAccessException("gameID not found");
+        return game.copy();
     }
 
     @Override
     public Collection<GameData> listGames() {
-        return new HashSet<>(this.gamedata);
+        Collection<GameData> games = new HashSet<>();
+        for (GameData game : this.gamedata.values()) {
+            games.add(game.copy());
+        }
+        return games;
     }
 
     @Override
@@ -41,21 +70,36 @@ public class MemoryGameDAO implements GameDAO{
             throw new DataAccessException("Game data is null");
         }
 
-        if (!this.gamedata.removeIf(g -> g.gameID() == game.gameID())) {
+        if (this.gamedata.replace(game.gameID(), game.copy()) == null) {
             throw new DataAccessException("gameID not found");
         }
+    }
 
-        this.gamedata.add(game);
+    @Override
+    public void recordMoves(GameData game, List<ChessMove> newMoves) throws DataAccessException {
+        updateGame(game);
+        this.moves.compute(game.gameID(), (id, recorded) -> {
+            List<ChessMove> updated = (recorded == null) ? new ArrayList<>() : recorded;
+            updated.addAll(newMoves);
+            return updated;
+        });
     }
+
+    @Override
+    public List<ChessMove> listMoves(int gameID) {
+        List<ChessMove> copy = new ArrayList<>();
+        // copied inside computeIfPresent so it can't see a half finished append
+        this.moves.computeIfPresent(gameID, (id, recorded) -> {
+            copy.addAll(recorded);
+            return recorded;
+        });
+        return copy;
+    }
+
     // function to help with generating new gameIDs
     @Override
     public boolean gameIDinUse (int gameID) {
-        for (GameData game : this.gamedata) {
-            if (gameID == game.gameID()) {
-                return true;
-            }
-        }
-        return false;
+        return this.gamedata.containsKey(gameID);
     }
     public boolean isEmpty () {
         return this.gamedata.isEmpty();
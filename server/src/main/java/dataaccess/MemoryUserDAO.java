@@ -1,10 +1,18 @@
 package dataaccess;
 import model.UserData;
+import org.mindrot.jbcrypt.BCrypt;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Keeps users in memory, indexed by username. Safe to use from many threads
+ * at once. Passwords are hashed before they're stored, the same as in the
+ * database.
+ */
 public class MemoryUserDAO implements UserDAO{
-    private final Collection<UserData> userdata = new HashSet<>();
+    private final Map<String, UserData> userdata = new ConcurrentHashMap<>();
 
     @Override
     public void clear () {
@@ -15,20 +23,26 @@ public class MemoryUserDAO implements UserDAO{
         if (user == null) {
             throw new DataAccessException("User data is null");
         }
-        boolean inserted = this.userdata.add(user);
-        if (!inserted) {
+        UserData hashed = new UserData(user.username(), BCrypt.hashpw(user.password(), BCrypt.gensalt()),
+                user.email());
+        if (this.userdata.putIfAbsent(user.username(), hashed) != null) {
             throw new DataAccessException("User already exists");
         }
 
     }
     @Override
     public UserData getUser (String username)  {
-        for (UserData user : this.userdata) {
-            if (username.equals(user.username())) {
-                return user;
-            }
+        if (username == null) {
+            return null;
         }
-        return null;
+        return this.userdata.get(username);
+    }
+    // for putting back a user whose password was already hashed
+    void restoreUser (UserData user) {
+        this.userdata.put(user.username(), user);
+    }
+    Collection<UserData> listUsers () {
+        return new ArrayList<>(this.userdata.values());
     }
     public boolean isEmpty () {
         return this.userdata.isEmpty();
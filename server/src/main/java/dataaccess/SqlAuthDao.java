@@ -6,26 +6,28 @@ import javax.xml.crypto.Data;
 import java.sql.*;
 
 public class SqlAuthDao implements AuthDAO {
-    public SqlAuthDao () throws Exception {
-        String[] createStatements = {
-                """
+    // every statement run against authTable
+    private static final String CREATE_TABLE = """
             CREATE TABLE if NOT EXISTS authTable
             (
             username VARCHAR(255) NOT NULL,
             authToken VARCHAR(255) NOT NULL,
             PRIMARY KEY (authToken)
             )
-            """
-        };
-        DatabaseManager.configureDatabase(createStatements);
+            """;
+    private static final String CLEAR = "TRUNCATE authTable";
+    private static final String INSERT = "INSERT INTO authTable (username, authToken) VALUES (?, ?)";
+    private static final String SELECT_BY_TOKEN = "SELECT username, authToken FROM authTable WHERE authToken = ?";
+    private static final String DELETE_BY_TOKEN = "DELETE FROM authTable WHERE authToken = ?";
+
+    public SqlAuthDao () throws Exception {
+        DatabaseManager.configureDatabase(new String[]{CREATE_TABLE});
     }
 
     @Override
     public void clear() {
-        String statementString = "TRUNCATE authTable";
-
         try (var conn = DatabaseManager.getConnection();
-             var statement = conn.prepareStatement(statementString)) {
+             var statement = conn.prepareStatement(CLEAR)) {
             statement.executeUpdate();
         } catch (SQLException | DataAccessException e) {
             throw new RuntimeException("Error clearing authTable", e);
@@ -35,10 +37,8 @@ public class SqlAuthDao implements AuthDAO {
 
     @Override
     public void createAuth(AuthData auth) throws DataAccessException {
-        var statementString = "INSERT INTO authTable (username, authToken) VALUES (?, ?)";
-
         try (var conn = DatabaseManager.getConnection()) {
-            try (var statement = conn.prepareStatement(statementString)) {
+            try (var statement = conn.prepareStatement(INSERT)) {
                 statement.setString(1, auth.username());
                 statement.setString(2, auth.authToken());
                 statement.executeUpdate();
@@ -50,9 +50,8 @@ public class SqlAuthDao implements AuthDAO {
 
     @Override
     public AuthData getAuth(String authToken) {
-        var statementString = "SELECT username, authToken FROM authTable WHERE authToken = ?";
         try (var conn = DatabaseManager.getConnection()) {
-            try (var statement = conn.prepareStatement(statementString)) {
+            try (var statement = conn.prepareStatement(SELECT_BY_TOKEN)) {
                 statement.setString(1, authToken);
 
                 try (var results = statement.executeQuery()) {
@@ -72,9 +71,8 @@ public class SqlAuthDao implements AuthDAO {
 
     @Override
     public void deleteAuth(AuthData auth) throws DataAccessException {
-        var statementString = "DELETE FROM authTable WHERE authToken = ?";
         try (var conn = DatabaseManager.getConnection()) {
-            try (var statement = conn.prepareStatement(statementString)) {
+            try (var statement = conn.prepareStatement(DELETE_BY_TOKEN)) {
                statement.setString(1, auth.authToken());
                int rowsAffected = statement.executeUpdate();
                if (rowsAffected == 0) {
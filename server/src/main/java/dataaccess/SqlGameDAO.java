@@ -1,19 +1,44 @@
 package dataaccess;
 
 import chess.ChessGame;
+import chess.ChessGameCodec;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import chess.PackedMove;
 import com.google.gson.Gson;
 import model.GameData;
+import model.GameSummary;
+import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
-
-
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Stores games in MySQL. Games are kept in the chessGameData column in
+ * {@link ChessGameCodec}'s binary form; the chessGame column holds the JSON
+ * that older versions stored, and is converted and cleared when the DAO
+ * starts.
+ * <p>
+ * Moves are appended to the gameMoves table rather than rewriting the game
+ * each time. The stored game is a snapshot as of snapshotPly, refreshed every
+ * snapshotInterval moves and whenever the game ends or is updated outright;
+ * reading a game replays the moves made since its snapshot.
+ * <p>
+ * The gameEnded column copies the game's ended flag so games can be listed
+ * and filtered without reading the game itself.
+ */
 public class SqlGameDAO implements GameDAO {
-    public SqlGameDAO () throws Exception {
-        String[] createStatements = {
-                """
+    private static final int DEFAULT_SNAPSHOT_INTERVAL = 20;
+
+    // the statements run in normal use, kept the same so each connection prepares them once
+    private static final String CREATE_GAME_TABLE = """
             CREATE TABLE if NOT EXISTS gameTable
             (
             gameID INT NOT NULL AUTO_INCREMENT,
@@ -21,20 +46,151 @@ public class SqlGameDAO implements GameDAO {
             blackUsername VARCHAR(255),
             gameName VARCHAR(255),
             chessGame TEXT,
+            chessGameData VARBINARY(64),
+            snapshotPly INT NOT NULL DEFAULT 0,
+            gameEnded BOOLEAN NOT NULL DEFAULT FALSE,
             PRIMARY KEY (gameID)
             )
-            """
-        };
-        DatabaseManager.configureDatabase(createStatements);
+            """;
+    private static final String CREATE_MOVES_TABLE = """
+            CREATE TABLE if NOT EXISTS gameMoves
+            (
+            gameID INT NOT NULL,
+            ply INT NOT NULL,
+            move SMALLINT NOT NULL,
+            PRIMARY KEY (gameID, ply)
+            )
+            """;
+    private static final String CLEAR_GAMES = "TRUNCATE gameTable";
+    private static final String CLEAR_MOVES = "TRUNCATE gameMoves";
+    private static final String INSERT_GAME = "INSERT INTO gameTable (whiteUsername, blackUsername, gameName, " +
+            "chessGameData, snapshotPly, gameEnded) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_GAME = "SELECT * FROM gameTable WHERE gameID = ?";
+    private static final String SELECT_ALL_GAMES = "SELECT * FROM gameTable";
+    private static final String COUNT_GAME = "SELECT COUNT(*) FROM gameTable WHERE gameID = ?";
+    private static final String UPDATE_GAME = "UPDATE gameTable SET whiteUsername = ?, blackUsername = ?, " +
+            "gameName = ?, chessGame = NULL, chessGameData = ?, snapshotPly = ?, gameEnded = ? WHERE gameID = ?";
+    private static final String UPDATE_SNAPSHOT = "UPDATE gameTable SET chessGame = NULL, chessGameData = ?, " +
+            "snapshotPly = ?, gameEnded = ? WHERE gameID = ?";
+    // listSummaries adds its filters to this
+    private static final String SELECT_SUMMARIES =
+            "SELECT gameID, whiteUsername, blackUsername, gameName, gameEnded FROM gameTable WHERE gameID > ?";
+    // the select finds nothing, and so inserts nothing, if the game doesn't exist
+    private static final String INSERT_MOVE = "INSERT INTO gameMoves (gameID, ply, move) " +
+            "SELECT gameID, ?, ? FROM gameTable WHERE gameID = ?";
+    private static final String SELECT_MOVES = "SELECT move FROM gameMoves WHERE gameID = ? ORDER BY ply";
+    private static final String SELECT_MOVES_SINCE_SNAPSHOT =
+            "SELECT move FROM gameMoves WHERE gameID = ? AND ply > ? ORDER BY ply";
+    private static final String SELECT_MOVES_SINCE_SNAPSHOTS = "SELECT m.gameID, m.move FROM gameMoves m " +
+            "JOIN gameTable g ON m.gameID = g.gameID WHERE m.ply > g.snapshotPly ORDER BY m.gameID, m.ply";
+
+    private final int snapshotInterval;
+
+    public SqlGameDAO () throws Exception {
+        this(DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    public SqlGameDAO (int snapshotInterval) throws Exception {
+        this.snapshotInterval = Math.max(1, snapshotInterval);
+        DatabaseManager.configureDatabase(new String[]{CREATE_GAME_TABLE, CREATE_MOVES_TABLE});
+        upgradeTable();
+    }
+
+    /**
+     * Adds the columns and indexes tables made by older versions are missing
+     * and moves any games still stored as JSON into the binary column.
+     */
+    private void upgradeTable() throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection()) {
+            addColumnIfMissing(conn, "chessGameData", "VARBINARY(64)");
+            addColumnIfMissing(conn, "snapshotPly", "INT NOT NULL DEFAULT 0");
+            boolean addedEnded = addColumnIfMissing(conn, "gameEnded", "BOOLEAN NOT NULL DEFAULT FALSE");
+            // listing pages through games in ID order, by status or by player
+            addIndexIfMissing(conn, "gameEndedIndex", "gameEnded, gameID");
+            addIndexIfMissing(conn, "whiteUsernameIndex", "whiteUsername");
+            addIndexIfMissing(conn, "blackUsernameIndex", "blackUsername");
+
+            String selectString = "SELECT gameID, chessGame FROM gameTable " +
+                    "WHERE chessGameData IS NULL AND chessGame IS NOT NULL";
+            String updateString = "UPDATE gameTable SET chessGameData = ?, snapshotPly = ?, gameEnded = ?, " +
+                    "chessGame = NULL WHERE gameID = ?";
+            Gson serializer = new Gson();
+            try (var select = conn.prepareStatement(selectString);
+                 var update = conn.prepareStatement(updateString);
+                 var results = select.executeQuery()) {
+                while (results.next()) {
+                    ChessGame chessGame = serializer.fromJson(results.getString("chessGame"), ChessGame.class);
+                    update.setBytes(1, encode(chessGame));
+                    update.setInt(2, plyOf(chessGame));
+                    update.setBoolean(3, isEnded(chessGame));
+                    update.setInt(4, results.getInt("gameID"));
+                    update.executeUpdate();
+                }
+            }
+            if (addedEnded) {
+                markEndedGames(conn);
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error migrating stored games: " + e.getMessage());
+        }
+    }
+
+    // fills in the new gameEnded column from the games stored before it existed
+    private static void markEndedGames(Connection conn) throws SQLException {
+        String selectString = "SELECT gameID, chessGameData FROM gameTable WHERE chessGameData IS NOT NULL";
+        String updateString = "UPDATE gameTable SET gameEnded = TRUE WHERE gameID = ?";
+        try (var select = conn.prepareStatement(selectString);
+             var update = conn.prepareStatement(updateString);
+             var results = select.executeQuery()) {
+            while (results.next()) {
+                try {
+                    if (!ChessGameCodec.decode(results.getBytes("chessGameData")).isGameEnded()) {
+                        continue;
+                    }
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
+                update.setInt(1, results.getInt("gameID"));
+                update.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * @return true if the column had to be added
+     */
+    private static boolean addColumnIfMissing(Connection conn, String column, String definition) throws SQLException {
+        try (var columns = conn.getMetaData().getColumns(conn.getCatalog(), null, "gameTable", column)) {
+            if (columns.next()) {
+                return false;
+            }
+        }
+        try (var statement = conn.prepareStatement("ALTER TABLE gameTable ADD COLUMN " + column + " " + definition)) {
+            statement.executeUpdate();
+        }
+        return true;
+    }
+
+    private static void addIndexIfMissing(Connection conn, String index, String columns) throws SQLException {
+        try (var indexes = conn.getMetaData().getIndexInfo(conn.getCatalog(), null, "gameTable", false, false)) {
+            while (indexes.next()) {
+                if (index.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                    return;
+                }
+            }
+        }
+        try (var statement = conn.prepareStatement("CREATE INDEX " + index + " ON gameTable (" + columns + ")")) {
+            statement.executeUpdate();
+        }
     }
 
     @Override
     public void clear() {
-        String statementString = "TRUNCATE gameTable";
-
         try (var conn = DatabaseManager.getConnection();
-             var statement = conn.prepareStatement(statementString)) {
-            statement.executeUpdate();
+             var clearGames = conn.prepareStatement(CLEAR_GAMES);
+             var clearMoves = conn.prepareStatement(CLEAR_MOVES)) {
+            clearGames.executeUpdate();
+            clearMoves.executeUpdate();
         } catch (SQLException | DataAccessException e) {
             throw new RuntimeException("Error clearing gameTable", e);
         }
@@ -45,18 +201,15 @@ public class SqlGameDAO implements GameDAO {
         if (gameIDinUse(game.gameID())) {
             throw new DataAccessException("Game ID already exists");
         }
-        String statementString = "INSERT INTO gameTable (whiteUsername, blackUsername, gameName, chessGame) " +
-                "VALUES (?, ?, ?, ?)";
-
         try (var conn = DatabaseManager.getConnection();
-             var statement = conn.prepareStatement(statementString, Statement.RETURN_GENERATED_KEYS)) {
-
-            String gameJson = new Gson().toJson(game.game());
+             var statement = conn.prepareStatement(INSERT_GAME, Statement.RETURN_GENERATED_KEYS)) {
 
             statement.setString(1, game.whiteUsername());
             statement.setString(2, game.blackUsername());
             statement.setString(3, game.gameName());
-            statement.setString(4, gameJson);
+            statement.setBytes(4, encode(game.game()));
+            statement.setInt(5, plyOf(game.game()));
+            statement.setBoolean(6, isEnded(game.game()));
 
             int affectedRows = statement.executeUpdate();
             if (affectedRows == 0) {
@@ -81,14 +234,15 @@ public class SqlGameDAO implements GameDAO {
 
     @Override
     public GameData getGame(int gameID) throws DataAccessException {
-        var statementString = "SELECT * FROM gameTable WHERE gameID = ?";
         try (var conn = DatabaseManager.getConnection();
-             var statement = conn.prepareStatement(statementString)) {
+             var statement = conn.prepareStatement(SELECT_GAME)) {
 
             statement.setInt(1, gameID);
             try (var results = statement.executeQuery()) {
                 if (results.next()) {
-                    return readGameData(results);
+                    GameData game = readGameData(results);
+                    replayMoves(conn, game, results.getInt("snapshotPly"));
+                    return game;
                 }
             }
         } catch (SQLException | DataAccessException e) {
@@ -100,15 +254,89 @@ public class SqlGameDAO implements GameDAO {
 
     @Override
     public Collection<GameData> listGames() {
-        Collection<GameData> games = new HashSet<>();
-        String sql = "SELECT * FROM gameTable";
+        try (var conn = DatabaseManager.getConnection()) {
+            beginConsistentRead(conn);
+            Map<Integer, GameData> games = readGames(conn);
+            replayMovesSinceSnapshots(conn, games);
+            conn.commit();
+            return new HashSet<>(games.values());
+        } catch (SQLException | DataAccessException e) {
+            throw new RuntimeException("Error listing games", e);
+        }
+    }
 
-        try (var conn = DatabaseManager.getConnection();
-             var statement = conn.prepareStatement(sql);
+    /**
+     * Starts a transaction whose reads all see the same snapshot, so a
+     * recordMoves that moves a game's snapshotPly forward between listGames'
+     * two reads can't make the second skip moves the first one's boards lack.
+     * The pool rolls back and puts autocommit and the isolation level back
+     * when the connection is closed.
+     */
+    static void beginConsistentRead(Connection conn) throws SQLException {
+        conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        conn.setAutoCommit(false);
+    }
+
+    // every game as of its snapshot, by gameID
+    Map<Integer, GameData> readGames(Connection conn) throws SQLException {
+        Map<Integer, GameData> games = new HashMap<>();
+        try (var statement = conn.prepareStatement(SELECT_ALL_GAMES);
              var results = statement.executeQuery()) {
+            while (results.next()) {
+                GameData game = readGameData(results);
+                games.put(game.gameID(), game);
+            }
+        }
+        return games;
+    }
 
+    // every game's moves since its snapshot in one query, rather than one per game
+    static void replayMovesSinceSnapshots(Connection conn, Map<Integer, GameData> games) throws SQLException {
+        try (var statement = conn.prepareStatement(SELECT_MOVES_SINCE_SNAPSHOTS);
+             var results = statement.executeQuery()) {
             while (results.next()) {
-                games.add(readGameData(results));
+                GameData game = games.get(results.getInt("gameID"));
+                if (game != null) {
+                    replay(game, results.getInt("move"));
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<GameSummary> listSummaries(GameQuery query) {
+        // never selects the game columns, so nothing has to be decoded or replayed
+        StringBuilder sql = new StringBuilder(SELECT_SUMMARIES);
+        if (query.openSeatsOnly()) {
+            sql.append(" AND (whiteUsername IS NULL OR blackUsername IS NULL)");
+        }
+        if (query.player() != null) {
+            sql.append(" AND (whiteUsername = ? OR blackUsername = ?)");
+        }
+        if (query.ended() != null) {
+            sql.append(" AND gameEnded = ?");
+        }
+        sql.append(" ORDER BY gameID LIMIT ?");
+
+        List<GameSummary> games = new ArrayList<>();
+        try (var conn = DatabaseManager.getConnection();
+             var statement = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            statement.setInt(index++, query.afterGameID());
+            if (query.player() != null) {
+                statement.setString(index++, query.player());
+                statement.setString(index++, query.player());
+            }
+            if (query.ended() != null) {
+                statement.setBoolean(index++, query.ended());
+            }
+            statement.setInt(index, query.limit());
+            try (var results = statement.executeQuery()) {
+                while (results.next()) {
+                    games.add(new GameSummary(results.getInt("gameID"), results.getString("whiteUsername"),
+                            results.getString("blackUsername"), results.getString("gameName"),
+                            results.getBoolean("gameEnded")));
+                }
             }
         } catch (SQLException | DataAccessException e) {
             throw new RuntimeException("Error listing games", e);
@@ -116,6 +344,92 @@ public class SqlGameDAO implements GameDAO {
         return games;
     }
 
+    @Override
+    public void recordMoves(GameData game, List<ChessMove> moves) throws DataAccessException {
+        if (game == null) {
+            throw new DataAccessException("Game data is null");
+        }
+        if (moves.isEmpty() || game.game() == null) {
+            updateGame(game);
+            return;
+        }
+
+        int lastPly = game.game().getMoveCount();
+        int firstPly = lastPly - moves.size() + 1;
+        boolean snapshot = game.game().isGameEnded()
+                || (firstPly - 1) / snapshotInterval != lastPly / snapshotInterval;
+
+        try (var conn = DatabaseManager.getConnection()) {
+            // the pool rolls back anything left uncommitted when the connection is closed
+            conn.setAutoCommit(false);
+            try (var insert = conn.prepareStatement(INSERT_MOVE)) {
+                for (int i = 0; i < moves.size(); i++) {
+                    insert.setInt(1, firstPly + i);
+                    insert.setInt(2, PackedMove.encode(moves.get(i)));
+                    insert.setInt(3, game.gameID());
+                    insert.addBatch();
+                }
+                for (int inserted : insert.executeBatch()) {
+                    if (inserted == 0) {
+                        throw new DataAccessException("gameID not found");
+                    }
+                }
+            }
+            if (snapshot) {
+                try (var update = conn.prepareStatement(UPDATE_SNAPSHOT)) {
+                    update.setBytes(1, encode(game.game()));
+                    update.setInt(2, lastPly);
+                    update.setBoolean(3, isEnded(game.game()));
+                    update.setInt(4, game.gameID());
+                    update.executeUpdate();
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            throw new DataAccessException("Error recording moves for game " + game.gameID());
+        }
+    }
+
+    @Override
+    public List<ChessMove> listMoves(int gameID) throws DataAccessException {
+        List<ChessMove> moves = new ArrayList<>();
+        try (var conn = DatabaseManager.getConnection();
+             var statement = conn.prepareStatement(SELECT_MOVES)) {
+            statement.setInt(1, gameID);
+            try (var results = statement.executeQuery()) {
+                while (results.next()) {
+                    moves.add(PackedMove.toChessMove(results.getInt("move")));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error listing moves for game " + gameID);
+        }
+        return moves;
+    }
+
+    private void replayMoves(Connection conn, GameData game, int snapshotPly) throws SQLException {
+        try (var statement = conn.prepareStatement(SELECT_MOVES_SINCE_SNAPSHOT)) {
+            statement.setInt(1, game.gameID());
+            statement.setInt(2, snapshotPly);
+            try (var results = statement.executeQuery()) {
+                while (results.next()) {
+                    replay(game, results.getInt("move"));
+                }
+            }
+        }
+    }
+
+    private static void replay(GameData game, int move) throws SQLException {
+        if (game.game() == null) {
+            throw new SQLException("Moves stored for game " + game.gameID() + " without a board");
+        }
+        try {
+            game.game().makeMove(PackedMove.toChessMove(move));
+        } catch (InvalidMoveException e) {
+            throw new SQLException("Stored moves for game " + game.gameID() + " don't replay", e);
+        }
+    }
+
     private GameData readGameData(ResultSet results) throws SQLException {
 
         int gameID = results.getInt("gameID");
@@ -123,51 +437,95 @@ public class SqlGameDAO implements GameDAO {
         String blackUsername = results.getString("blackUsername");
         String gameName = results.getString("gameName");
 
-        Gson serializer = new Gson();
-        ChessGame chessGame = serializer.fromJson(results.getString("chessGame"), ChessGame.class);
+        ChessGame chessGame;
+        byte[] gameBytes = results.getBytes("chessGameData");
+        if (gameBytes != null) {
+            try {
+                chessGame = ChessGameCodec.decode(gameBytes);
+            } catch (IllegalArgumentException e) {
+                throw new SQLException("Unreadable game with ID " + gameID, e);
+            }
+        } else {
+            // written as JSON by another server since this one migrated
+            chessGame = new Gson().fromJson(results.getString("chessGame"), ChessGame.class);
+        }
 
         return new GameData(gameID, whiteUsername, blackUsername, gameName, chessGame);
     }
 
+    private static byte[] encode(ChessGame chessGame) {
+        return (chessGame != null) ? ChessGameCodec.encode(chessGame) : null;
+    }
+
+    private static int plyOf(ChessGame chessGame) {
+        return (chessGame != null) ? chessGame.getMoveCount() : 0;
+    }
+
+    private static boolean isEnded(ChessGame chessGame) {
+        return chessGame != null && chessGame.isGameEnded();
+    }
+
 
     @Override
     public void updateGame(GameData game) throws DataAccessException {
         if (game == null) {
             throw new DataAccessException("Game data is null");
         }
+        updateGames(List.of(game));
+    }
 
-        if (!gameIDinUse(game.gameID())) {
-            throw new DataAccessException("gameID not found");
+    /**
+     * Rewrites the games in one batch and one transaction, so either all of
+     * them are updated or none are. A game that doesn't exist is found from
+     * its update matching no rows rather than by looking it up first.
+     */
+    @Override
+    public void updateGames(Collection<GameData> games) throws DataAccessException {
+        if (games.isEmpty()) {
+            return;
         }
+        List<Integer> missing = new ArrayList<>();
+        try (var conn = DatabaseManager.getConnection()) {
+            // the pool rolls back anything left uncommitted when the connection is closed
+            conn.setAutoCommit(false);
+            try (var statement = conn.prepareStatement(UPDATE_GAME)) {
+                List<Integer> gameIDs = new ArrayList<>(games.size());
+                for (GameData game : games) {
+                    statement.setString(1, game.whiteUsername());
+                    statement.setString(2, game.blackUsername());
+                    statement.setString(3, game.gameName());
+                    statement.setBytes(4, encode(game.game()));
+                    statement.setInt(5, plyOf(game.game()));
+                    statement.setBoolean(6, isEnded(game.game()));
+                    statement.setInt(7, game.gameID());
+                    statement.addBatch();
+                    gameIDs.add(game.gameID());
+                }
 
-        var statementString = "UPDATE gameTable SET whiteUsername = ?, blackUsername = ?, gameName = ?, chessGame = ? WHERE gameID = ?";
-
-        try (var conn = DatabaseManager.getConnection();
-             var statement = conn.prepareStatement(statementString)) {
-
-            String gameJson = new Gson().toJson(game.game());
-            statement.setString(1, game.whiteUsername());
-            statement.setString(2, game.blackUsername());
-            statement.setString(3, game.gameName());
-            statement.setString(4, gameJson);
-            statement.setInt(5, game.gameID());
-
-            int rowsUpdated = statement.executeUpdate();
-            if (rowsUpdated == 0) {
-                throw new DataAccessException("Game update failed, no game found with gameID: " + game.gameID());
+                // MySQL counts rows matched, not changed, so an unchanged game still counts as found
+                int[] rowsUpdated = statement.executeBatch();
+                for (int i = 0; i < rowsUpdated.length; i++) {
+                    if (rowsUpdated[i] == 0) {
+                        missing.add(gameIDs.get(i));
+                    }
+                }
             }
-        } catch (SQLException | DataAccessException e) {
+            if (missing.isEmpty()) {
+                conn.commit();
+            }
+        } catch (SQLException e) {
             throw new DataAccessException("Error updating game data");
         }
+        if (!missing.isEmpty()) {
+            throw new DataAccessException("gameID not found: " + missing);
+        }
     }
 
-
     // function to help with generating new gameIDs
     @Override
     public boolean gameIDinUse(int gameID) {
-        String sql = "SELECT COUNT(*) FROM gameTable WHERE gameID=?";
         try (var conn = DatabaseManager.getConnection();
-             var stmt = conn.prepareStatement(sql)) {
+             var stmt = conn.prepareStatement(COUNT_GAME)) {
 
             stmt.setInt(1, gameID);
             try (var rs = stmt.executeQuery()) {
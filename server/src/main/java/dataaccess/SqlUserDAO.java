@@ -7,9 +7,8 @@ import org.mindrot.jbcrypt.BCrypt;
 import java.sql.SQLException;
 
 public class SqlUserDAO implements UserDAO {
-    public SqlUserDAO () throws Exception {
-        String[] createStatements = {
-                """
+    // every statement run against userTable
+    private static final String CREATE_TABLE = """
             CREATE TABLE if NOT EXISTS userTable
             (
             username VARCHAR(255) NOT NULL,
@@ -17,17 +16,20 @@ public class SqlUserDAO implements UserDAO {
             email VARCHAR(255) NOT NULL,
             PRIMARY KEY (username)
             )
-            """
-        };
-        DatabaseManager.configureDatabase(createStatements);
+            """;
+    private static final String CLEAR = "TRUNCATE userTable";
+    private static final String INSERT = "INSERT INTO userTable (username, password, email) VALUES (?, ?, ?)";
+    private static final String SELECT_BY_USERNAME =
+            "SELECT username, password, email FROM userTable WHERE username = ?";
+
+    public SqlUserDAO () throws Exception {
+        DatabaseManager.configureDatabase(new String[]{CREATE_TABLE});
     }
 
     @Override
     public void clear() {
-        String statementString = "TRUNCATE userTable";
-
         try (var conn = DatabaseManager.getConnection();
-             var statement = conn.prepareStatement(statementString)) {
+             var statement = conn.prepareStatement(CLEAR)) {
             statement.executeUpdate();
         } catch (SQLException | DataAccessException e) {
             throw new RuntimeException("Error clearing userTable", e);
@@ -45,10 +47,9 @@ public class SqlUserDAO implements UserDAO {
             throw new DataAccessException("User already exists");
         }
 
-        var statementString = "INSERT INTO userTable (username, password, email) VALUES (?, ?, ?)";
 
         try (var conn = DatabaseManager.getConnection();
-             var statement = conn.prepareStatement(statementString)) {
+             var statement = conn.prepareStatement(INSERT)) {
             statement.setString(1, user.username());
             statement.setString(2, encryptPassword(user.password()));
             statement.setString(3, user.email());
@@ -64,10 +65,9 @@ public class SqlUserDAO implements UserDAO {
             return null;
         }
 
-        var statementString = "SELECT username, password, email FROM userTable WHERE username = ?";
 
         try (var conn = DatabaseManager.getConnection();
-             var statement = conn.prepareStatement(statementString)) {
+             var statement = conn.prepareStatement(SELECT_BY_USERNAME)) {
             statement.setString(1, username);
 
             try (var results = statement.executeQuery()) {
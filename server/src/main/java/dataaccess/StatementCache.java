@@ -0,0 +1,66 @@
+package dataaccess;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prepared statements that aren't in use, kept open on one pooled connection
+ * so the same SQL isn't prepared again every time the connection is
+ * borrowed.
+ * <p>
+ * A statement is taken out while a borrower uses it and put back when they
+ * close it, so two borrowers never share one. Once maxSize statements are
+ * kept the least recently used is closed. Only used by whoever has the
+ * connection borrowed, so it needs no locking.
+ */
+final class StatementCache {
+    private final Map<String, PreparedStatement> statements;
+
+    StatementCache(int maxSize) {
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > maxSize) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return a kept statement for the key, or null if there isn't one
+     */
+    PreparedStatement take(String key) {
+        return statements.remove(key);
+    }
+
+    /**
+     * Keeps a statement the borrower has finished with, ready for the next
+     * one, or closes it if the same statement is already kept.
+     */
+    void giveBack(String key, PreparedStatement statement) {
+        try {
+            statement.clearParameters();
+            statement.clearBatch();
+        } catch (SQLException e) {
+            closeQuietly(statement);
+            return;
+        }
+        PreparedStatement kept = statements.putIfAbsent(key, statement);
+        if (kept != null) {
+            closeQuietly(statement);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            // closed along with the connection anyway
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package dataaccess;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how often each SQL statement is prepared, reused from a
+ * connection's statement cache and executed, and how long preparing and
+ * executing take, to show where database time goes and whether caching
+ * statements is paying off.
+ */
+public final class StatementMetrics {
+    private final Map<String, Counters> bySql = new ConcurrentHashMap<>();
+
+    /**
+     * Totals for one SQL statement.
+     */
+    public record Timing(long prepares, long prepareNanos, long reuses, long executions, long executeNanos) {}
+
+    private static final class Counters {
+        final LongAdder prepares = new LongAdder();
+        final LongAdder prepareNanos = new LongAdder();
+        final LongAdder reuses = new LongAdder();
+        final LongAdder executions = new LongAdder();
+        final LongAdder executeNanos = new LongAdder();
+    }
+
+    void prepared(String sql, long nanos) {
+        Counters counters = countersFor(sql);
+        counters.prepares.increment();
+        counters.prepareNanos.add(nanos);
+    }
+
+    void reused(String sql) {
+        countersFor(sql).reuses.increment();
+    }
+
+    void executed(String sql, long nanos) {
+        Counters counters = countersFor(sql);
+        counters.executions.increment();
+        counters.executeNanos.add(nanos);
+    }
+
+    /**
+     * @return the totals so far for every statement, sorted by SQL
+     */
+    public Map<String, Timing> snapshot() {
+        Map<String, Timing> timings = new TreeMap<>();
+        bySql.forEach((sql, counters) -> timings.put(sql, new Timing(counters.prepares.sum(),
+                counters.prepareNanos.sum(), counters.reuses.sum(), counters.executions.sum(),
+                counters.executeNanos.sum())));
+        return timings;
+    }
+
+    private Counters countersFor(String sql) {
+        return bySql.computeIfAbsent(sql, key -> new Counters());
+    }
+}
@@ -0,0 +1,286 @@
+package dataaccess;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log of records in a directory, plus a snapshot that lets the
+ * log be emptied once it's grown.
+ * <p>
+ * Each record is framed with its length, a sequence number and a CRC, so a
+ * record torn by a crash is found on the next open and cut off along with
+ * anything after it. Appending only buffers the record; {@link #sync} makes it
+ * durable. Callers syncing at the same time share one write and fsync: whoever
+ * gets there first writes everything buffered so far, and the rest wait for
+ * it instead of each forcing the disk on their own.
+ * <p>
+ * The snapshot records the sequence number it was taken at, so if a crash
+ * comes between replacing the snapshot and emptying the log, records it
+ * already includes aren't replayed twice.
+ */
+public class WriteAheadLog implements AutoCloseable {
+    private static final String LOG_FILE = "store.log";
+    private static final String SNAPSHOT_FILE = "store.snapshot";
+    // length, sequence number and CRC
+    private static final int FRAME_HEADER_BYTES = 4 + 8 + 4;
+    private static final int MAX_RECORD_BYTES = 64 * 1024 * 1024;
+
+    private final Path directory;
+    private final FileChannel channel;
+    private final Recovered recovered;
+
+    private final ByteArrayOutputStream buffered = new ByteArrayOutputStream();
+    private long appended;
+    private long durable;
+    private boolean syncing;
+    private IOException failure;
+
+    /**
+     * What was on disk when the log was opened.
+     *
+     * @param snapshot the latest snapshot, or null if none has been taken
+     * @param records  the records made since the snapshot, in order
+     */
+    public record Recovered(byte[] snapshot, List<byte[]> records) {}
+
+    /**
+     * Opens the log in the directory, creating it if needed, and reads back
+     * what was written before.
+     */
+    public WriteAheadLog(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+
+        Frame snapshot = readSnapshot(directory);
+        long snapshotSequence = (snapshot != null) ? snapshot.sequence() : 0;
+
+        channel = FileChannel.open(directory.resolve(LOG_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        List<byte[]> records = new ArrayList<>();
+        long lastSequence = snapshotSequence;
+        long validBytes = 0;
+        channel.position(0);
+        InputStream in = new BufferedInputStream(Channels.newInputStream(channel));
+        Frame frame;
+        while ((frame = readFrame(in)) != null) {
+            validBytes += FRAME_HEADER_BYTES + frame.payload().length;
+            if (frame.sequence() > snapshotSequence) {
+                records.add(frame.payload());
+            }
+            lastSequence = Math.max(lastSequence, frame.sequence());
+        }
+        // drop whatever a crash left half written
+        channel.truncate(validBytes);
+        channel.position(validBytes);
+
+        appended = lastSequence;
+        durable = lastSequence;
+        recovered = new Recovered((snapshot != null) ? snapshot.payload() : null, records);
+    }
+
+    private static Frame readSnapshot(Path directory) throws IOException {
+        Path snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(snapshotPath)) {
+            return null;
+        }
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(snapshotPath))) {
+            Frame frame = readFrame(in);
+            if (frame == null) {
+                // renamed into place only once complete, so this isn't a torn write
+                throw new IOException("Snapshot " + snapshotPath + " is corrupt");
+            }
+            return frame;
+        }
+    }
+
+    /**
+     * @return the snapshot and records found when the log was opened
+     */
+    public Recovered recovered() {
+        return recovered;
+    }
+
+    /**
+     * Reads back the snapshot and records on disk now, which is what opening
+     * the log again would find. Records that were appended but never synced
+     * aren't included.
+     */
+    public Recovered reread() throws IOException {
+        Frame snapshot = readSnapshot(directory);
+        long snapshotSequence = (snapshot != null) ? snapshot.sequence() : 0;
+        List<byte[]> records = new ArrayList<>();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(directory.resolve(LOG_FILE)))) {
+            Frame frame;
+            while ((frame = readFrame(in)) != null) {
+                if (frame.sequence() > snapshotSequence) {
+                    records.add(frame.payload());
+                }
+            }
+        }
+        return new Recovered((snapshot != null) ? snapshot.payload() : null, records);
+    }
+
+    /**
+     * Buffers a record to be written by the next sync.
+     *
+     * @return the record's sequence number, to pass to sync
+     */
+    public synchronized long append(byte[] record) throws IOException {
+        if (failure != null) {
+            throw new IOException("Log is unusable after an earlier write failed", failure);
+        }
+        appended++;
+        writeFrame(new DataOutputStream(buffered), appended, record);
+        return appended;
+    }
+
+    /**
+     * Returns once the record with the given sequence number, and everything
+     * before it, is on disk.
+     */
+    public void sync(long sequence) throws IOException {
+        while (true) {
+            byte[] batch;
+            long batchEnd;
+            synchronized (this) {
+                while (syncing && durable < sequence && failure == null) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException("Interrupted waiting for the log", e);
+                    }
+                }
+                if (failure != null) {
+                    throw new IOException("Log is unusable after an earlier write failed", failure);
+                }
+                if (durable >= sequence) {
+                    return;
+                }
+                syncing = true;
+                batch = buffered.toByteArray();
+                buffered.reset();
+                batchEnd = appended;
+            }
+
+            IOException failed = null;
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(batch);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                failed = e;
+            }
+
+            synchronized (this) {
+                syncing = false;
+                if (failed != null) {
+                    // a partly written batch can't be taken back, so stop accepting more
+                    failure = failed;
+                } else {
+                    durable = batchEnd;
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Replaces the snapshot and empties the log. The snapshot has to include
+     * every record appended so far, so the caller must keep anything new from
+     * being appended until this returns.
+     */
+    public void checkpoint(byte[] snapshot) throws IOException {
+        long sequence;
+        synchronized (this) {
+            sequence = appended;
+        }
+        sync(sequence);
+
+        Path snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        Path partial = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(partial, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(snapshot.length + FRAME_HEADER_BYTES);
+            writeFrame(new DataOutputStream(bytes), sequence, snapshot);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(false);
+        }
+        Files.move(partial, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        synchronized (this) {
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(false);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        long sequence;
+        synchronized (this) {
+            sequence = appended;
+        }
+        try {
+            sync(sequence);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private record Frame(long sequence, byte[] payload) {}
+
+    private static void writeFrame(DataOutputStream out, long sequence, byte[] payload) throws IOException {
+        out.writeInt(payload.length);
+        out.writeLong(sequence);
+        out.writeInt(checksum(sequence, payload));
+        out.write(payload);
+    }
+
+    // null at the end of the input or at the first frame that doesn't check out
+    private static Frame readFrame(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        try {
+            int length = in.readInt();
+            if (length < 0 || length > MAX_RECORD_BYTES) {
+                return null;
+            }
+            long sequence = in.readLong();
+            int crc = in.readInt();
+            byte[] payload = in.readNBytes(length);
+            if (payload.length != length || crc != checksum(sequence, payload)) {
+                return null;
+            }
+            return new Frame(sequence, payload);
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private static int checksum(long sequence, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(8).putLong(0, sequence));
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
@@ -1,12 +1,19 @@
 package server;
 
 import com.google.gson.Gson;
+import service.BadRequestException;
 import service.GameService;
+import requestresult.ListRequest;
 import requestresult.ListResult;
 import spark.Request;
 import spark.Response;
 import spark.Route;
 
+/**
+ * Lists games, a page at a time if limit or cursor is given. The optional
+ * query parameters limit, cursor, openSeats, player and ended fill in a
+ * {@link ListRequest}.
+ */
 public class ListGameHandler implements Route {
     private final GameService gameService;
 
@@ -20,8 +27,38 @@ public class ListGameHandler implements Route {
 
         String authToken = serializer.fromJson(request.headers("authorization"), String.class);
 
-        ListResult games = gameService.list(authToken);
+        ListRequest listRequest = new ListRequest(
+                intParam(request, "limit"),
+                intParam(request, "cursor"),
+                booleanParam(request, "openSeats"),
+                request.queryParams("player"),
+                booleanParam(request, "ended"));
+        ListResult games = gameService.list(authToken, listRequest);
 
         return serializer.toJson(games);
     }
+
+    private static Integer intParam(Request request, String name) {
+        String value = request.queryParams(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException(name + " must be a number");
+        }
+    }
+
+    private static Boolean booleanParam(Request request, String name) {
+        String value = request.queryParams(name);
+        if (value == null) {
+            return null;
+        }
+        return switch (value) {
+            case "true" -> true;
+            case "false" -> false;
+            default -> throw new BadRequestException(name + " must be true or false");
+        };
+    }
 }
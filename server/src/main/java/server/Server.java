@@ -1,7 +1,8 @@
 package server;
 
 import dataaccess.*;
-import org.eclipse.jetty.websocket.api.Session;
+import server.websocket.GameActors;
+import server.websocket.GameRooms;
 import server.websocket.WebSocketHandler;
 import service.BadRequestException;
 import service.GameService;
@@ -10,45 +11,106 @@ import service.UserService;
 import spark.Spark;
 import websocket.commands.Connect;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.io.IOException;
+import java.nio.file.Path;
 
 public class Server {
     AuthDAO auths;
     GameDAO games;
     UserDAO users;
+    CachedGameDAO gameCache;
+    LogStore logStore;
+    boolean usesDatabase;
 
     UserService userService;
     GameService gameService;
 
-    ConcurrentHashMap<Session, Integer> gameSessions;
+    GameRooms gameRooms;
+    GameActors gameActors;
 
+    /**
+     * Uses the storage named by the chess.storage system property, or MySQL
+     * if it isn't set.
+     */
     public Server () {
-        try {
-            auths = new SqlAuthDao();
-            games = new SqlGameDAO();
-            users = new SqlUserDAO();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+        this(System.getProperty("chess.storage", "mysql"));
+    }
+
+    /**
+     * @param storage "mysql" to keep data in the database, "log" to keep it in
+     *                memory backed by a log on local disk, or "memory" to keep
+     *                everything in this process and lose it on shutdown
+     */
+    public Server (String storage) {
+        switch (storage) {
+            case "memory" -> {
+                // never touches DatabaseManager, so no db.properties is needed
+                auths = new MemoryAuthDAO();
+                games = new MemoryGameDAO();
+                users = new MemoryUserDAO();
+            }
+            case "log" -> {
+                try {
+                    logStore = new LogStore(Path.of(System.getProperty("chess.log.directory", "chess-data")),
+                            Integer.getInteger("chess.log.snapshotEvery", 10000));
+                } catch (DataAccessException e) {
+                    throw new RuntimeException(e);
+                }
+                auths = logStore.authDAO();
+                games = logStore.gameDAO();
+                users = logStore.userDAO();
+            }
+            case "mysql" -> {
+                useDatabase();
+                try {
+                    DatabaseManager.createDatabase();
+                } catch (DataAccessException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown storage: " + storage);
         }
         userService = new UserService(users, auths);
         gameService = new GameService(games, auths);
 
+        gameRooms = new GameRooms();
+        gameActors = new GameActors(Runtime.getRuntime().availableProcessors());
+    }
+
+    private void useDatabase() {
+        usesDatabase = true;
         try {
-            DatabaseManager.createDatabase();
-        } catch (DataAccessException e) {
+            auths = new CachedAuthDAO(new SqlAuthDao(),
+                    Integer.parseInt(DatabaseManager.getProperty("cache.auth.maxSize", "10000")),
+                    Integer.parseInt(DatabaseManager.getProperty("cache.auth.maxMissingSize", "1000")),
+                    Long.parseLong(DatabaseManager.getProperty("cache.auth.ttlMillis", "300000")),
+                    Long.parseLong(DatabaseManager.getProperty("cache.auth.negativeTtlMillis", "5000")));
+            gameCache = new CachedGameDAO(
+                    new SqlGameDAO(Integer.parseInt(DatabaseManager.getProperty("db.game.snapshotInterval", "20"))),
+                    Long.parseLong(DatabaseManager.getProperty("cache.game.flushIntervalMillis", "1000")),
+                    Long.parseLong(DatabaseManager.getProperty("cache.game.idleMillis", "600000")),
+                    snapshotPath(DatabaseManager.getProperty("cache.game.snapshotFile", "")),
+                    Long.parseLong(DatabaseManager.getProperty("cache.game.snapshotIntervalMillis", "60000")));
+            games = gameCache;
+            users = new SqlUserDAO();
+        } catch (Exception e) {
             throw new RuntimeException(e);
         }
-
-        gameSessions = new ConcurrentHashMap<>();
     }
 
 
+    // off unless set, since loaded games are trusted over the database; only safe when
+    // nothing else (a restore, another server, a clear) changes games while this one is down
+    private static Path snapshotPath(String setting) {
+        return setting.isBlank() ? null : Path.of(setting);
+    }
+
     public int run(int desiredPort) {
         Spark.port(desiredPort);
         Spark.staticFiles.location("web");
 
         // websocket endpoint
-        Spark.webSocket("/ws", new WebSocketHandler(gameService, userService, gameSessions));
+        Spark.webSocket("/ws", new WebSocketHandler(gameService, userService, gameRooms, gameActors));
 
         // user endpoints
         Spark.post("/session", new LoginRequestHandler(userService));
@@ -74,6 +136,21 @@ public class Server {
     public void stop() {
         Spark.stop();
         Spark.awaitStop();
+        gameActors.close();
+        if (gameCache != null) {
+            gameCache.close();
+        }
+        if (usesDatabase) {
+            // after the cache, which writes what it's still holding on close
+            DatabaseManager.close();
+        }
+        if (logStore != null) {
+            try {
+                logStore.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close the log: " + e.getMessage());
+            }
+        }
     }
 }
 
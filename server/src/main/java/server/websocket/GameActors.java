@@ -0,0 +1,99 @@
+package server.websocket;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs work for each game one task at a time, in the order it was submitted,
+ * while different games run in parallel on a shared thread pool.
+ * <p>
+ * Every game with pending work gets a mailbox. Submitting to a game that
+ * isn't already being worked on schedules its mailbox on the pool; the
+ * mailbox then runs a batch of tasks and either reschedules itself, so busy
+ * games take turns with quiet ones, or removes itself once empty. Since only
+ * one thread ever works a given mailbox, tasks for the same game never
+ * overlap and need no locking of their own.
+ */
+public class GameActors implements AutoCloseable {
+    // how many tasks a game runs before giving other games a turn
+    private static final int BATCH_SIZE = 16;
+
+    private final ExecutorService executor;
+    private final ConcurrentHashMap<Integer, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    private static final class Mailbox {
+        final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    }
+
+    public GameActors(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "game-actor-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a task to run after everything already submitted for the game.
+     */
+    public void submit(int gameID, Runnable task) {
+        mailboxes.compute(gameID, (id, mailbox) -> {
+            // the mailbox only exists while it's scheduled, so a new one needs starting
+            if (mailbox == null) {
+                mailbox = new Mailbox();
+                Mailbox started = mailbox;
+                executor.execute(() -> drain(id, started));
+            }
+            mailbox.tasks.add(task);
+            return mailbox;
+        });
+    }
+
+    /**
+     * @return how many games currently have work queued or running
+     */
+    int activeGames() {
+        return mailboxes.size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain(int gameID, Mailbox mailbox) {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Runnable task = mailbox.tasks.poll();
+            if (task == null) {
+                break;
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // one bad command shouldn't stop the rest of the game's
+                System.err.println("Error processing command for game " + gameID + ": " + e.getMessage());
+            }
+        }
+
+        // submit adds under the same lock, so nothing can slip in between
+        // checking for more work and removing the mailbox
+        mailboxes.compute(gameID, (id, current) -> {
+            if (mailbox.tasks.isEmpty()) {
+                return null;
+            }
+            executor.execute(() -> drain(id, mailbox));
+            return mailbox;
+        });
+    }
+}
@@ -0,0 +1,67 @@
+package server.websocket;
+
+import org.eclipse.jetty.websocket.api.Session;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which sessions are connected to which game, indexed both ways:
+ * by game so a broadcast only visits that game's sessions, and by session so
+ * a closed connection can be removed from its game without searching.
+ * <p>
+ * A session is in at most one game at a time; joining another game moves it.
+ * Games with nobody connected are dropped.
+ */
+public class GameRooms {
+    private final ConcurrentHashMap<Integer, Set<Session>> rooms = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Session, Integer> sessionRooms = new ConcurrentHashMap<>();
+
+    public void join(int gameID, Session session) {
+        Integer previous = sessionRooms.put(session, gameID);
+        if (previous != null && previous != gameID) {
+            removeFromRoom(previous, session);
+        }
+        rooms.compute(gameID, (id, sessions) -> {
+            if (sessions == null) {
+                sessions = ConcurrentHashMap.newKeySet();
+            }
+            sessions.add(session);
+            return sessions;
+        });
+    }
+
+    /**
+     * Removes a session from whatever game it's in, if any.
+     */
+    public void leave(Session session) {
+        Integer gameID = sessionRooms.remove(session);
+        if (gameID != null) {
+            removeFromRoom(gameID, session);
+        }
+    }
+
+    /**
+     * @return the sessions connected to a game. The collection is live, so
+     * sessions joining or leaving while it's iterated may or may not be seen.
+     */
+    public Collection<Session> sessions(int gameID) {
+        Set<Session> sessions = rooms.get(gameID);
+        return (sessions == null) ? Set.of() : sessions;
+    }
+
+    /**
+     * @return the game a session is connected to, or null if it isn't in one
+     */
+    public Integer gameOf(Session session) {
+        return sessionRooms.get(session);
+    }
+
+    private void removeFromRoom(int gameID, Session session) {
+        rooms.computeIfPresent(gameID, (id, sessions) -> {
+            sessions.remove(session);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+}
@@ -0,0 +1,153 @@
+package server.websocket;
+
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import websocket.messages.ServerMessage;
+
+import java.util.LinkedList;
+import java.util.ListIterator;
+
+/**
+ * Queues outgoing messages for one session and writes them without blocking
+ * the caller, one at a time and in order.
+ * <p>
+ * The queue is bounded so a client that stops reading can't hold on to
+ * unbounded memory. A LOAD_GAME waiting to be sent is replaced in place by a
+ * newer one rather than queued behind it, since only the latest board
+ * matters. If the queue still fills up, the client is too far behind to catch
+ * up and is disconnected, and onClosed is run.
+ */
+public class SessionOutbox {
+    private final Session session;
+    private final int maxQueued;
+    private final Runnable onClosed;
+    private final LinkedList<Frame> queue = new LinkedList<>();
+    private boolean writing;
+    private boolean closed;
+
+    /**
+     * A message serialized once, ready to be sent to any number of sessions.
+     */
+    public record Frame(ServerMessage.ServerMessageType type, String text) {}
+
+    private final WriteCallback afterWrite = new WriteCallback() {
+        @Override
+        public void writeFailed(Throwable cause) {
+            close(StatusCode.SERVER_ERROR, "Failed to send message");
+        }
+
+        @Override
+        public void writeSuccess() {
+            writeNext();
+        }
+    };
+
+    public SessionOutbox(Session session, int maxQueued) {
+        this(session, maxQueued, () -> {});
+    }
+
+    /**
+     * @param onClosed run once if the outbox gives up on the session
+     */
+    public SessionOutbox(Session session, int maxQueued, Runnable onClosed) {
+        this.session = session;
+        this.maxQueued = maxQueued;
+        this.onClosed = onClosed;
+    }
+
+    /**
+     * Queues a message and starts writing if nothing is being written yet.
+     */
+    public void send(Frame frame) {
+        boolean overflowed = false;
+        Frame next = null;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            boolean replaced = frame.type() == ServerMessage.ServerMessageType.LOAD_GAME
+                    && replaceQueuedLoadGame(frame);
+            if (!replaced) {
+                if (queue.size() >= maxQueued) {
+                    overflowed = true;
+                    closed = true;
+                    queue.clear();
+                } else {
+                    queue.addLast(frame);
+                }
+            }
+            if (!overflowed && !writing) {
+                writing = true;
+                next = queue.pollFirst();
+            }
+        }
+        if (overflowed) {
+            onClosed.run();
+            disconnect(StatusCode.POLICY_VIOLATION, "Too many unsent messages");
+        } else if (next != null) {
+            write(next);
+        }
+    }
+
+    /**
+     * @return true once the outbox has given up on the session
+     */
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    // where the old one was, so it still goes out before anything queued after it
+    private boolean replaceQueuedLoadGame(Frame frame) {
+        ListIterator<Frame> iterator = queue.listIterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().type() == ServerMessage.ServerMessageType.LOAD_GAME) {
+                iterator.set(frame);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeNext() {
+        Frame next;
+        synchronized (this) {
+            next = closed ? null : queue.pollFirst();
+            if (next == null) {
+                writing = false;
+                return;
+            }
+        }
+        write(next);
+    }
+
+    private void write(Frame frame) {
+        try {
+            session.getRemote().sendString(frame.text(), afterWrite);
+        } catch (RuntimeException e) {
+            close(StatusCode.SERVER_ERROR, "Failed to send message");
+        }
+    }
+
+    private void close(int statusCode, String reason) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.clear();
+        }
+        onClosed.run();
+        disconnect(statusCode, reason);
+    }
+
+    private void disconnect(int statusCode, String reason) {
+        try {
+            if (session.isOpen()) {
+                session.close(statusCode, reason);
+            }
+        } catch (RuntimeException e) {
+            // already going away
+        }
+    }
+}
@@ -10,6 +10,8 @@ import dataaccess.DataAccessException;
 import model.AuthData;
 import model.GameData;
 import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketClose;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketConnect;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketMessage;
 import org.eclipse.jetty.websocket.api.annotations.WebSocket;
 import service.GameService;
@@ -18,28 +20,39 @@ import service.UserService;
 import websocket.commands.*;
 import websocket.messages.ErrorMessage;
 import websocket.messages.LoadGameMessage;
+import websocket.messages.MoveMessage;
 import websocket.messages.NotificationMessage;
 import websocket.messages.ServerMessage;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 @WebSocket
 public class WebSocketHandler {
     GameService gameService;
     UserService userService;
-    ConcurrentHashMap<Session, Integer> gameSessions;
+    GameRooms gameRooms;
+    GameActors gameActors;
+    private final ConcurrentHashMap<Session, SessionOutbox> outboxes = new ConcurrentHashMap<>();
+    // sessions that asked for MOVE messages instead of a LOAD_GAME after every move
+    private final Set<Session> moveUpdateSessions = ConcurrentHashMap.newKeySet();
     private final Gson gson;
     private record ValidationContext(AuthData authData, GameData gameData) {}
+    // a client this far behind isn't keeping up and gets disconnected
+    private static final int MAX_QUEUED_MESSAGES = 64;
 
     public WebSocketHandler (GameService gameService,
                              UserService userService,
-                             ConcurrentHashMap<Session, Integer> gameSessions) {
+                             GameRooms gameRooms,
+                             GameActors gameActors) {
         this.gameService = gameService;
         this.userService = userService;
-        this.gameSessions = gameSessions;
+        this.gameRooms = gameRooms;
+        this.gameActors = gameActors;
 
         gson = new GsonBuilder()
                 .registerTypeAdapter(UserGameCommand.class, new UserGameCommandDeserializer())
@@ -47,16 +60,47 @@ public class WebSocketHandler {
 
     }
 
+    @OnWebSocketConnect
+    public void onConnect (Session session) {
+        // the only place outboxes are made, so commands that run after the close can't leave one behind
+        outboxes.put(session, new SessionOutbox(session, MAX_QUEUED_MESSAGES, () -> outboxes.remove(session)));
+    }
+
     @OnWebSocketMessage
     public void onMessage (Session session, String message) throws IOException {
         System.out.println("Received: " + message);
         UserGameCommand userGameCommand = gson.fromJson(message, UserGameCommand.class);
 
+        Integer gameID = userGameCommand.getGameID();
+        if (gameID == null) {
+            // no game to queue behind, validation will report the problem
+            dispatch(session, userGameCommand);
+            return;
+        }
+        // commands for one game run one at a time so they can't overwrite each other's updates
+        gameActors.submit(gameID, () -> {
+            try {
+                dispatch(session, userGameCommand);
+            } catch (IOException e) {
+                System.err.println("Failed to reply to session " + session.hashCode() + ": " + e.getMessage());
+            }
+        });
+    }
+
+    @OnWebSocketClose
+    public void onClose (Session session, int statusCode, String reason) {
+        gameRooms.leave(session);
+        outboxes.remove(session);
+        moveUpdateSessions.remove(session);
+    }
+
+    private void dispatch (Session session, UserGameCommand userGameCommand) throws IOException {
         switch (userGameCommand.getCommandType()) {
             case CONNECT -> connect(session, (Connect) userGameCommand);
             case MAKE_MOVE -> makeMove(session, (MakeMove) userGameCommand);
             case LEAVE -> leave(session, (Leave) userGameCommand);
             case RESIGN -> resign(session, (Resign) userGameCommand);
+            case RESYNC -> resync(session, (Resync) userGameCommand);
             default -> broadcastError(session, new ErrorMessage("Error: Unknown command type."));
         }
     }
@@ -80,7 +124,12 @@ public class WebSocketHandler {
         }
 
         String userName = authData.username();
-        gameSessions.put(session, command.getGameID());
+        gameRooms.join(command.getGameID(), session);
+        if (command.wantsMoveUpdates()) {
+            moveUpdateSessions.add(session);
+        } else {
+            moveUpdateSessions.remove(session);
+        }
 
         ChessGame.TeamColor playerColor = getTeamColor(gameData, userName);
         String roleDescription;
@@ -96,7 +145,7 @@ public class WebSocketHandler {
         broadcast(gameData.gameID(), session, notification, false);
 
         var loadGameMsg = new LoadGameMessage(gameData.game());
-        session.getRemote().sendString(gson.toJson(loadGameMsg));
+        send(session, loadGameMsg);
 
         System.out.println("Session " + session.hashCode() + " connected successfully.");
     }
@@ -155,11 +204,12 @@ public class WebSocketHandler {
             GameData updatedGameData = new GameData(gameData.gameID(),
                     gameData.whiteUsername(), gameData.blackUsername(), gameData.gameName(), game);
 
-            gameService.updateGame(authData.authToken(), updatedGameData);
+            gameService.recordMove(authData.authToken(), updatedGameData, move);
 
 
-            LoadGameMessage loadGameMessage = new LoadGameMessage(game);
-            broadcast(gameID, session, loadGameMessage, true);
+            MoveMessage moveMessage = new MoveMessage(move, game.getTeamTurn(),
+                    resultedInCheck || endedByCheckmate, endedByCheckmate, endedByStalemate, game.getMoveCount());
+            broadcastMove(gameID, moveMessage, new LoadGameMessage(game));
 
             String moveNotificationText = String.format("%s (%s) made move: %s", userName, playerColor, move);
             NotificationMessage moveNotification = new NotificationMessage(moveNotificationText);
@@ -190,7 +240,7 @@ public class WebSocketHandler {
 
         ValidationContext context = fetchAndValidateAuthAndGame(session, command);
         if (context == null) {
-            gameSessions.remove(session);
+            gameRooms.leave(session);
             return;
         }
 
@@ -213,7 +263,7 @@ public class WebSocketHandler {
             leaveMessage = String.format("Player %s (%s) has left the game.", userName, playerColor);
         }
         broadcast(gameID, session, new NotificationMessage(leaveMessage), false);
-        gameSessions.remove(session);
+        gameRooms.leave(session);
     }
 
     private void resign (Session session, Resign command) throws IOException {
@@ -254,6 +304,16 @@ public class WebSocketHandler {
                 new NotificationMessage(opponentName + " wins! " + userName + " resigned."),
                 true);
     }
+    private void resync (Session session, Resync command) throws IOException {
+        System.out.println("Processing RESYNC for session " + session.hashCode() + " game " + command.getGameID());
+
+        ValidationContext context = fetchAndValidateAuthAndGame(session, command);
+        if (context == null) {
+            return;
+        }
+        send(session, new LoadGameMessage(context.gameData().game()));
+    }
+
     private ChessGame.TeamColor getTeamColor (GameData gameData, String userName) {
         if (Objects.equals(gameData.blackUsername(), userName)) {
             return ChessGame.TeamColor.BLACK;
@@ -270,40 +330,68 @@ public class WebSocketHandler {
     }
 
     public void broadcast(int targetGameID, Session senderSession, ServerMessage message, boolean includeSender) {
-        String messageJson = gson.toJson(message);
-        var removeList = new ArrayList<Session>();
-
+        // serialized once and shared by every recipient
+        var frame = frameOf(message);
         System.out.println("Broadcasting [" + message.getServerMessageType() + "] to game " + targetGameID);
+        broadcast(targetGameID, senderSession, includeSender, recipient -> frame);
+    }
 
-        for (ConcurrentHashMap.Entry<Session, Integer> entry : gameSessions.entrySet()) { // Level 1
-            Session currentSession = entry.getKey();
-            Integer sessionGameID = entry.getValue();
+    /**
+     * Sends the move to everyone in the game who asked for MOVE messages and
+     * the whole game to everyone else.
+     */
+    private void broadcastMove(int targetGameID, MoveMessage moveMessage, LoadGameMessage loadGameMessage) {
+        var moveFrame = frameOf(moveMessage);
+        var loadGameFrame = frameOf(loadGameMessage);
+        System.out.println("Broadcasting [" + moveMessage.getServerMessageType() + "] to game " + targetGameID);
+        broadcast(targetGameID, null, true,
+                recipient -> moveUpdateSessions.contains(recipient) ? moveFrame : loadGameFrame);
+    }
 
-            if (!currentSession.isOpen() || sessionGameID == null) {
+    private void broadcast(int targetGameID, Session senderSession, boolean includeSender,
+                           Function<Session, SessionOutbox.Frame> frameFor) {
+        var removeList = new ArrayList<Session>();
+
+        for (Session currentSession : gameRooms.sessions(targetGameID)) {
+            if (!currentSession.isOpen()) {
                 removeList.add(currentSession);
                 continue;
             }
-            if (sessionGameID != targetGameID) {
-                continue;
-            }
             boolean isSender = (currentSession.equals(senderSession));
             if (isSender && !includeSender) {
                 continue;
             }
-            try {
-
-                currentSession.getRemote().sendString(messageJson);
-            } catch (IOException | IllegalStateException e) {
+            SessionOutbox outbox = outboxes.get(currentSession);
+            if (outbox == null) {
+                removeList.add(currentSession);
+                continue;
+            }
+            outbox.send(frameFor.apply(currentSession));
+            if (outbox.isClosed()) {
                 removeList.add(currentSession);
             }
         }
         for (Session sessionToRemove : removeList) {
-            gameSessions.remove(sessionToRemove);
+            gameRooms.leave(sessionToRemove);
+            outboxes.remove(sessionToRemove);
+            moveUpdateSessions.remove(sessionToRemove);
+        }
+    }
+
+    public void broadcastError(Session sender, ErrorMessage errorMessage) {
+        send(sender, errorMessage);
+    }
+
+    // dropped if the session has already gone
+    private void send(Session session, ServerMessage message) {
+        SessionOutbox outbox = outboxes.get(session);
+        if (outbox != null && session.isOpen()) {
+            outbox.send(frameOf(message));
         }
     }
 
-    public void broadcastError(Session sender, ErrorMessage errorMessage) throws IOException {
-        sender.getRemote().sendString(errorMessage.toJson());
+    private SessionOutbox.Frame frameOf(ServerMessage message) {
+        return new SessionOutbox.Frame(message.getServerMessageType(), gson.toJson(message));
     }
 
 
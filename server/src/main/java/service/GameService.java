@@ -1,16 +1,22 @@
 package service;
 import chess.ChessBoard;
 import chess.ChessGame;
+import chess.ChessMove;
 import dataaccess.*;
 import model.AuthData;
 import model.GameData;
+import model.GameSummary;
 import requestresult.CreateResult;
 import requestresult.JoinRequest;
+import requestresult.ListRequest;
 import requestresult.ListResult;
 
-import java.util.Collection;
+import java.util.List;
 
 public class GameService {
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 500;
+
     GameDAO gameDAO;
     AuthDAO authDAO;
 
@@ -20,11 +26,39 @@ public class GameService {
     }
 
     public ListResult list(String authToken) throws UnauthorizedException {
+        return list(authToken, new ListRequest(null, null, null, null, null));
+    }
+
+    /**
+     * Lists one page of games matching the request, in gameID order. Only
+     * pages when a limit or cursor is given, so a plain list gets every game.
+     */
+    public ListResult list(String authToken, ListRequest request) throws UnauthorizedException {
         if (authDAO.getAuth(authToken) == null) {
             throw new UnauthorizedException("invalid auth token");
         }
-        Collection<GameData> games = gameDAO.listGames();
-        return new ListResult(games);
+        if (request.limit() == null && request.cursor() == null) {
+            GameQuery query = new GameQuery(Integer.MIN_VALUE, Integer.MAX_VALUE,
+                    Boolean.TRUE.equals(request.openSeats()), request.player(), request.ended());
+            return new ListResult(gameDAO.listSummaries(query), null);
+        }
+        int limit = (request.limit() == null) ? DEFAULT_PAGE_SIZE : request.limit();
+        if (limit < 1 || (request.cursor() != null && request.cursor() < 0)) {
+            throw new BadRequestException("invalid page");
+        }
+        int cursor = (request.cursor() == null) ? Integer.MIN_VALUE : request.cursor();
+        limit = Math.min(limit, MAX_PAGE_SIZE);
+
+        // one extra tells us whether there's another page
+        GameQuery query = new GameQuery(cursor, limit + 1, Boolean.TRUE.equals(request.openSeats()),
+                request.player(), request.ended());
+        List<GameSummary> games = gameDAO.listSummaries(query);
+        Integer nextCursor = null;
+        if (games.size() > limit) {
+            games = games.subList(0, limit);
+            nextCursor = games.get(limit - 1).gameID();
+        }
+        return new ListResult(games, nextCursor);
     }
 
     public CreateResult createGame(String gameName, String authToken) throws DataAccessException, UnauthorizedException {
@@ -96,6 +130,10 @@ public class GameService {
         authDAO.getAuth(authToken);
         gameDAO.updateGame(game);
     }
+    public void recordMove (String authToken, GameData game, ChessMove move) throws DataAccessException {
+        authDAO.getAuth(authToken);
+        gameDAO.recordMove(game, move);
+    }
     public void removePlayer (String authToken, int gameID, ChessGame.TeamColor teamColor)
                                 throws UnauthorizedException, DataAccessException {
         AuthData authData = authDAO.getAuth(authToken);
@@ -0,0 +1,146 @@
+package dataaccess;
+
+import model.AuthData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CachedAuthDAOTest {
+
+    CountingAuthDAO stored;
+    CachedAuthDAO cache;
+
+    @BeforeEach
+    void setUp() throws DataAccessException {
+        stored = new CountingAuthDAO();
+        cache = new CachedAuthDAO(stored, 2, 60_000, 60_000);
+        stored.createAuth(new AuthData("token", "easton"));
+    }
+
+    @Test
+    void repeatedLookupsAreCached() {
+        Assertions.assertEquals("easton", cache.getAuth("token").username());
+        Assertions.assertEquals("easton", cache.getAuth("token").username());
+        Assertions.assertEquals(1, stored.lookups);
+    }
+
+    @Test
+    void missesAreCached() {
+        Assertions.assertNull(cache.getAuth("bad"));
+        Assertions.assertNull(cache.getAuth("bad"));
+        Assertions.assertEquals(1, stored.lookups);
+    }
+
+    @Test
+    void createReplacesCachedMiss() throws DataAccessException {
+        Assertions.assertNull(cache.getAuth("new"));
+        cache.createAuth(new AuthData("new", "canon"));
+
+        Assertions.assertEquals("canon", cache.getAuth("new").username());
+        Assertions.assertEquals(1, stored.lookups);
+    }
+
+    @Test
+    void deleteAndClearInvalidate() throws DataAccessException {
+        AuthData auth = cache.getAuth("token");
+        cache.deleteAuth(auth);
+        Assertions.assertNull(cache.getAuth("token"));
+
+        cache.createAuth(new AuthData("other", "canon"));
+        cache.clear();
+        Assertions.assertNull(cache.getAuth("other"));
+    }
+
+    @Test
+    void entriesExpire() throws InterruptedException {
+        CachedAuthDAO shortLived = new CachedAuthDAO(stored, 10, 1, 1);
+        shortLived.getAuth("token");
+        Thread.sleep(5);
+        shortLived.getAuth("token");
+        Assertions.assertEquals(2, stored.lookups);
+    }
+
+    @Test
+    void leastRecentlyUsedIsEvicted() throws DataAccessException {
+        stored.createAuth(new AuthData("a", "canon"));
+        stored.createAuth(new AuthData("b", "josh"));
+        cache.getAuth("token");
+        cache.getAuth("a");
+        cache.getAuth("token");
+        // "a" is now the least recently used of the two
+        cache.getAuth("b");
+
+        cache.getAuth("token");
+        Assertions.assertEquals(3, stored.lookups);
+        cache.getAuth("a");
+        Assertions.assertEquals(4, stored.lookups);
+    }
+
+    @Test
+    void missesDontEvictSessions() {
+        cache.getAuth("token");
+        for (int i = 0; i < 10; i++) {
+            cache.getAuth("bad" + i);
+        }
+
+        cache.getAuth("token");
+        Assertions.assertEquals(11, stored.lookups);
+    }
+
+    @Test
+    void missRacingCreateIsntCached() throws DataAccessException {
+        // the lookup reads before the token is inserted, and finishes after it's cached
+        MemoryAuthDAO racing = new MemoryAuthDAO() {
+            @Override
+            public AuthData getAuth(String authToken) {
+                AuthData auth = super.getAuth(authToken);
+                if (authToken.equals("new") && auth == null) {
+                    try {
+                        cache.createAuth(new AuthData("new", "canon"));
+                    } catch (DataAccessException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+                return auth;
+            }
+        };
+        cache = new CachedAuthDAO(racing, 2, 60_000, 60_000);
+
+        Assertions.assertNull(cache.getAuth("new"));
+        Assertions.assertEquals("canon", cache.getAuth("new").username());
+    }
+
+    @Test
+    void otherTokensChangingDontStopCaching() throws DataAccessException {
+        int[] lookups = new int[1];
+        // someone else logs in while the lookup is waiting on the backing DAO
+        MemoryAuthDAO racing = new MemoryAuthDAO() {
+            @Override
+            public AuthData getAuth(String authToken) {
+                lookups[0]++;
+                try {
+                    cache.createAuth(new AuthData("other" + lookups[0], "canon"));
+                } catch (DataAccessException e) {
+                    throw new RuntimeException(e);
+                }
+                return super.getAuth(authToken);
+            }
+        };
+        racing.createAuth(new AuthData("token", "easton"));
+        cache = new CachedAuthDAO(racing, 10, 60_000, 60_000);
+
+        cache.getAuth("token");
+        Assertions.assertEquals("easton", cache.getAuth("token").username());
+        Assertions.assertEquals(1, lookups[0]);
+    }
+
+    private static class CountingAuthDAO extends MemoryAuthDAO {
+        int lookups;
+
+        @Override
+        public AuthData getAuth(String authToken) {
+            lookups++;
+            return super.getAuth(authToken);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import model.GameData;
+import model.GameSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+class CachedGameDAOTest {
+
+    private static final ChessMove E4 = ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null);
+    private static final ChessMove E5 = ChessMove.of(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null);
+
+    MemoryGameDAO stored;
+    CachedGameDAO cache;
+
+    @BeforeEach
+    void setUp() throws DataAccessException {
+        stored = new MemoryGameDAO();
+        // long enough that the background flush never runs during a test
+        cache = new CachedGameDAO(stored, 60_000, 60_000);
+        cache.createGame(new GameData(1, "white", "black", "game", new ChessGame()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.close();
+    }
+
+    @Test
+    void updatesAreWrittenOnFlush() throws DataAccessException, InvalidMoveException {
+        GameData game = cache.getGame(1);
+        game.game().makeMove(E4);
+        cache.updateGame(game);
+
+        Assertions.assertEquals(game.game(), cache.getGame(1).game());
+        Assertions.assertEquals(new ChessGame(), stored.getGame(1).game());
+
+        cache.flush();
+        Assertions.assertEquals(game.game(), stored.getGame(1).game());
+    }
+
+    @Test
+    void endedGamesAreWrittenImmediately() throws DataAccessException {
+        GameData game = cache.getGame(1);
+        game.game().setGameEnded(true);
+        cache.updateGame(game);
+
+        Assertions.assertTrue(stored.getGame(1).game().isGameEnded());
+    }
+
+    @Test
+    void readersGetTheirOwnCopy() throws DataAccessException, InvalidMoveException {
+        GameData game = cache.getGame(1);
+        game.game().makeMove(E4);
+
+        Assertions.assertEquals(new ChessGame(), cache.getGame(1).game());
+        Assertions.assertNotSame(cache.getGame(1).game(), cache.getGame(1).game());
+    }
+
+    @Test
+    void listIncludesUnflushedChanges() throws DataAccessException {
+        cache.updateGame(new GameData(1, "white", null, "game", new ChessGame()));
+
+        GameData listed = cache.listGames().iterator().next();
+        Assertions.assertNull(listed.blackUsername());
+        Assertions.assertEquals("black", stored.getGame(1).blackUsername());
+    }
+
+    @Test
+    void summariesShowUnflushedChanges() throws DataAccessException {
+        cache.updateGame(new GameData(1, "white", null, "game", new ChessGame()));
+
+        GameQuery allGames = new GameQuery(0, 10, false, null, null);
+        Assertions.assertEquals(List.of(new GameSummary(1, "white", null, "game", false)),
+                cache.listSummaries(allGames));
+        // listing flushed it
+        Assertions.assertEquals(List.of(new GameSummary(1, "white", null, "game", false)),
+                stored.listSummaries(allGames));
+    }
+
+    @Test
+    void summaryPagesReflectUnflushedSeatChanges() throws DataAccessException {
+        for (int gameID = 2; gameID <= 5; gameID++) {
+            cache.createGame(new GameData(gameID, "white", null, "game", new ChessGame()));
+        }
+        // game 2 fills up and game 1 frees a seat, neither flushed yet
+        cache.updateGame(new GameData(2, "white", "black", "game", new ChessGame()));
+        cache.updateGame(new GameData(1, "white", null, "game", new ChessGame()));
+
+        GameQuery firstPage = new GameQuery(0, 3, true, null, null);
+        Assertions.assertEquals(List.of(1, 3, 4),
+                cache.listSummaries(firstPage).stream().map(GameSummary::gameID).toList());
+        GameQuery secondPage = new GameQuery(4, 3, true, null, null);
+        Assertions.assertEquals(List.of(5),
+                cache.listSummaries(secondPage).stream().map(GameSummary::gameID).toList());
+    }
+
+    @Test
+    void updatingUnknownGameFails() {
+        Assertions.assertThrows(DataAccessException.class,
+                () -> cache.updateGame(new GameData(2, null, null, "missing", new ChessGame())));
+    }
+
+    @Test
+    void writeThroughWhenFlushIntervalIsZero() throws DataAccessException {
+        CachedGameDAO writeThrough = new CachedGameDAO(stored, 0, 60_000);
+        writeThrough.updateGame(new GameData(1, null, "black", "game", new ChessGame()));
+
+        Assertions.assertNull(stored.getGame(1).whiteUsername());
+        writeThrough.close();
+    }
+
+    @Test
+    void movesAreRecordedTogetherOnFlush() throws DataAccessException, InvalidMoveException {
+        GameData game = cache.getGame(1);
+        game.game().makeMove(E4);
+        cache.recordMove(game, E4);
+        game.game().makeMove(E5);
+        cache.recordMove(game, E5);
+
+        Assertions.assertEquals(List.of(), stored.listMoves(1));
+        Assertions.assertEquals(List.of(E4, E5), cache.listMoves(1));
+
+        cache.flush();
+        Assertions.assertEquals(List.of(E4, E5), stored.listMoves(1));
+        Assertions.assertEquals(game.game(), stored.getGame(1).game());
+        Assertions.assertEquals(List.of(E4, E5), cache.listMoves(1));
+    }
+
+    @Test
+    void movesAndOtherChangesAreBothWritten() throws DataAccessException, InvalidMoveException {
+        GameData game = cache.getGame(1);
+        game.game().makeMove(E4);
+        cache.recordMove(game, E4);
+        cache.updateGame(new GameData(1, "white", null, "game", game.game()));
+
+        cache.flush();
+        Assertions.assertEquals(List.of(E4), stored.listMoves(1));
+        Assertions.assertNull(stored.getGame(1).blackUsername());
+    }
+
+    @Test
+    void snapshotLoadsGamesWithoutTheBackingDAO(@TempDir Path directory) throws DataAccessException {
+        Path file = directory.resolve("games.snapshot");
+        CachedGameDAO first = new CachedGameDAO(stored, 60_000, 60_000, file, 0);
+        first.getGame(1);
+        first.close();
+
+        // nothing behind it, so the game can only have come from the snapshot
+        CachedGameDAO restarted = new CachedGameDAO(new MemoryGameDAO(), 60_000, 60_000, file, 0);
+        Assertions.assertEquals(stored.getGame(1), restarted.getGame(1));
+        restarted.close();
+    }
+
+    @Test
+    void flushedGamesAreStaleInTheSnapshot(@TempDir Path directory) throws DataAccessException,
+            InvalidMoveException {
+        Path file = directory.resolve("games.snapshot");
+        CachedGameDAO crashed = new CachedGameDAO(stored, 60_000, 60_000, file, 0);
+        crashed.getGame(1);
+        crashed.writeSnapshot();
+        GameData game = crashed.getGame(1);
+        game.game().makeMove(E4);
+        crashed.recordMove(game, E4);
+        crashed.flush();
+
+        // the snapshot's copy is older than the stored game, so it isn't loaded
+        CachedGameDAO restarted = new CachedGameDAO(new MemoryGameDAO(), 60_000, 60_000, file, 0);
+        Assertions.assertThrows(DataAccessException.class, () -> restarted.getGame(1));
+        restarted.close();
+    }
+
+    @Test
+    void rewritesAreBatchedAndABadGameDoesntBlockTheRest() throws DataAccessException {
+        List<Integer> batchSizes = new ArrayList<>();
+        MemoryGameDAO batching = new MemoryGameDAO() {
+            @Override
+            public void updateGames(Collection<GameData> games) throws DataAccessException {
+                batchSizes.add(games.size());
+                super.updateGames(games);
+            }
+        };
+        CachedGameDAO batched = new CachedGameDAO(batching, 60_000, 60_000);
+        batched.createGame(new GameData(1, null, null, "first", new ChessGame()));
+        batched.createGame(new GameData(2, null, null, "second", new ChessGame()));
+        batched.updateGame(new GameData(1, "white", null, "first", new ChessGame()));
+        batched.updateGame(new GameData(2, "white", null, "second", new ChessGame()));
+
+        batched.flush();
+        Assertions.assertEquals(List.of(2), batchSizes);
+        Assertions.assertEquals("white", batching.getGame(2).whiteUsername());
+
+        batched.updateGame(new GameData(1, "other", null, "first", new ChessGame()));
+        batched.updateGame(new GameData(2, "other", null, "second", new ChessGame()));
+        // game 2 disappears from behind the cache, failing the batch
+        batching.clear();
+        batching.createGame(new GameData(1, null, null, "first", new ChessGame()));
+        batched.flush();
+        Assertions.assertEquals("other", batching.getGame(1).whiteUsername());
+        batched.close();
+    }
+}
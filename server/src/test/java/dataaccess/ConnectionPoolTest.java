@@ -0,0 +1,254 @@
+package dataaccess;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+class ConnectionPoolTest {
+
+    private final List<FakeConnection> opened = new ArrayList<>();
+    private ConnectionPool pool;
+
+    @AfterEach
+    void closePool() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    void closedConnectionsAreReused() throws SQLException {
+        pool = newPool(0, 2, 60_000, 100);
+
+        Connection first = pool.borrow();
+        first.close();
+        Connection second = pool.borrow();
+        second.close();
+
+        Assertions.assertEquals(1, opened.size());
+        Assertions.assertFalse(opened.get(0).closed);
+        Assertions.assertTrue(first.isClosed());
+        Assertions.assertEquals(1, pool.idleCount());
+    }
+
+    @Test
+    void returnedWrapperCantBeUsed() throws SQLException {
+        pool = newPool(0, 1, 60_000, 100);
+
+        Connection connection = pool.borrow();
+        connection.close();
+
+        Assertions.assertThrows(SQLException.class, connection::getAutoCommit);
+        // closing twice doesn't give the connection back twice
+        connection.close();
+        Assertions.assertEquals(1, pool.idleCount());
+    }
+
+    @Test
+    void borrowingPastMaxSizeTimesOut() throws SQLException {
+        pool = newPool(0, 2, 60_000, 50);
+
+        Connection first = pool.borrow();
+        pool.borrow();
+        Assertions.assertThrows(SQLException.class, pool::borrow);
+
+        first.close();
+        Assertions.assertNotNull(pool.borrow());
+        Assertions.assertEquals(2, opened.size());
+    }
+
+    @Test
+    void invalidIdleConnectionsAreReplaced() throws Exception {
+        pool = newPool(0, 1, 60_000, 100);
+
+        pool.borrow().close();
+        opened.get(0).valid = false;
+        // only connections idle for a while get validated
+        Thread.sleep(1100);
+
+        pool.borrow().close();
+        Assertions.assertEquals(2, opened.size());
+        Assertions.assertTrue(opened.get(0).closed);
+    }
+
+    @Test
+    void uncommittedWorkIsRolledBack() throws SQLException {
+        pool = newPool(0, 1, 60_000, 100);
+
+        Connection connection = pool.borrow();
+        connection.setAutoCommit(false);
+        connection.close();
+
+        Assertions.assertTrue(opened.get(0).rolledBack);
+        Assertions.assertTrue(pool.borrow().getAutoCommit());
+    }
+
+    @Test
+    void isolationLevelIsRestored() throws SQLException {
+        pool = newPool(0, 1, 60_000, 100);
+
+        try (Connection connection = pool.borrow()) {
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        }
+        Assertions.assertEquals(Connection.TRANSACTION_READ_COMMITTED, opened.get(0).isolation);
+    }
+
+    @Test
+    void maintenanceEvictsIdleAndKeepsMinimum() throws SQLException {
+        pool = newPool(1, 3, 0, 100);
+
+        Connection first = pool.borrow();
+        Connection second = pool.borrow();
+        Connection third = pool.borrow();
+        first.close();
+        second.close();
+        third.close();
+        Assertions.assertEquals(3, pool.idleCount());
+
+        pool.maintain();
+        Assertions.assertEquals(1, pool.idleCount());
+        Assertions.assertEquals(2, opened.stream().filter(connection -> connection.closed).count());
+
+        pool.borrow().close();
+        pool.close();
+        Assertions.assertTrue(opened.stream().allMatch(connection -> connection.closed));
+    }
+
+    @Test
+    void maintenanceOpensUpToMinimum() {
+        pool = newPool(2, 4, 60_000, 100);
+
+        pool.maintain();
+        Assertions.assertEquals(2, pool.idleCount());
+        Assertions.assertEquals(2, opened.size());
+    }
+
+    @Test
+    void statementsAreReusedAcrossBorrows() throws SQLException {
+        pool = newPool(0, 1, 60_000, 100);
+
+        for (int i = 0; i < 3; i++) {
+            try (Connection connection = pool.borrow();
+                 PreparedStatement statement = connection.prepareStatement("UPDATE t SET x = ?")) {
+                Assertions.assertEquals(1, statement.executeUpdate());
+                Assertions.assertSame(connection, statement.getConnection());
+            }
+        }
+
+        Assertions.assertEquals(1, opened.get(0).prepared);
+        Assertions.assertFalse(opened.get(0).statements.get(0).closed);
+        StatementMetrics.Timing timing = pool.statementMetrics().snapshot().get("UPDATE t SET x = ?");
+        Assertions.assertEquals(1, timing.prepares());
+        Assertions.assertEquals(2, timing.reuses());
+        Assertions.assertEquals(3, timing.executions());
+    }
+
+    @Test
+    void statementsInUseAreNotShared() throws SQLException {
+        pool = newPool(0, 1, 60_000, 100);
+
+        try (Connection connection = pool.borrow();
+             PreparedStatement first = connection.prepareStatement("SELECT 1");
+             PreparedStatement second = connection.prepareStatement("SELECT 1")) {
+            Assertions.assertNotSame(first, second);
+        }
+        // only one of the two is kept
+        Assertions.assertEquals(2, opened.get(0).prepared);
+        Assertions.assertEquals(1, opened.get(0).statements.stream().filter(statement -> statement.closed).count());
+    }
+
+    @Test
+    void leastRecentlyUsedStatementIsClosed() throws SQLException {
+        pool = newPool(0, 1, 60_000, 100);
+
+        try (Connection connection = pool.borrow()) {
+            for (String sql : List.of("SELECT 1", "SELECT 2", "SELECT 3")) {
+                connection.prepareStatement(sql).close();
+            }
+            Assertions.assertThrows(SQLException.class, () -> {
+                PreparedStatement statement = connection.prepareStatement("SELECT 2");
+                statement.close();
+                statement.executeQuery();
+            });
+        }
+        // the cache keeps two, so the first was closed to make room for the third
+        List<FakeStatement> statements = opened.get(0).statements;
+        Assertions.assertTrue(statements.get(0).closed);
+        Assertions.assertFalse(statements.get(1).closed);
+        Assertions.assertEquals(3, opened.get(0).prepared);
+    }
+
+    private ConnectionPool newPool(int minSize, int maxSize, long idleTimeoutMillis, long waitTimeoutMillis) {
+        return new ConnectionPool(this::openFake,
+                new ConnectionPool.Settings(minSize, maxSize, idleTimeoutMillis, waitTimeoutMillis, 1, 2));
+    }
+
+    private Connection openFake() {
+        FakeConnection fake = new FakeConnection();
+        opened.add(fake);
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> {
+                        fake.closed = true;
+                        yield null;
+                    }
+                    case "isClosed" -> fake.closed;
+                    case "isValid" -> fake.valid;
+                    case "getAutoCommit" -> fake.autoCommit;
+                    case "setAutoCommit" -> {
+                        fake.autoCommit = (Boolean) args[0];
+                        yield null;
+                    }
+                    case "getTransactionIsolation" -> fake.isolation;
+                    case "setTransactionIsolation" -> {
+                        fake.isolation = (Integer) args[0];
+                        yield null;
+                    }
+                    case "rollback" -> {
+                        fake.rolledBack = true;
+                        yield null;
+                    }
+                    case "prepareStatement" -> openFakeStatement(fake);
+                    default -> null;
+                });
+    }
+
+    private PreparedStatement openFakeStatement(FakeConnection connection) {
+        connection.prepared++;
+        FakeStatement fake = new FakeStatement();
+        connection.statements.add(fake);
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> {
+                        fake.closed = true;
+                        yield null;
+                    }
+                    case "isClosed" -> fake.closed;
+                    case "executeUpdate" -> 1;
+                    default -> null;
+                });
+    }
+
+    private static class FakeConnection {
+        boolean closed;
+        boolean valid = true;
+        boolean autoCommit = true;
+        boolean rolledBack;
+        int isolation = Connection.TRANSACTION_READ_COMMITTED;
+        int prepared;
+        final List<FakeStatement> statements = new ArrayList<>();
+    }
+
+    private static class FakeStatement {
+        boolean closed;
+    }
+}
@@ -0,0 +1,137 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import model.AuthData;
+import model.GameData;
+import model.UserData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+class LogStoreTest {
+
+    private static final ChessMove E4 = ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void changesSurviveReopening() throws Exception {
+        GameData game;
+        try (LogStore store = new LogStore(directory, 1000)) {
+            store.userDAO().createUser(new UserData("user", "password", "email"));
+            store.authDAO().createAuth(new AuthData("token", "user"));
+            store.authDAO().createAuth(new AuthData("gone", "user"));
+            store.authDAO().deleteAuth(new AuthData("gone", "user"));
+            game = makeMove(store, store.gameDAO().createGame(new GameData(0, "user", null, "game", new ChessGame())));
+        }
+
+        try (LogStore store = new LogStore(directory, 1000)) {
+            Assertions.assertEquals("email", store.userDAO().getUser("user").email());
+            Assertions.assertNotEquals("password", store.userDAO().getUser("user").password());
+            Assertions.assertNotNull(store.authDAO().getAuth("token"));
+            Assertions.assertNull(store.authDAO().getAuth("gone"));
+            Assertions.assertEquals(game, store.gameDAO().getGame(game.gameID()));
+            Assertions.assertEquals(List.of(E4), store.gameDAO().listMoves(game.gameID()));
+            // IDs carry on from the recovered games
+            GameData next = store.gameDAO().createGame(new GameData(0, null, null, "next", new ChessGame()));
+            Assertions.assertEquals(game.gameID() + 1, next.gameID());
+        }
+    }
+
+    @Test
+    void recoversWithoutClosing() throws Exception {
+        LogStore crashed = new LogStore(directory, 2);
+        GameData game = crashed.gameDAO().createGame(new GameData(0, null, null, "game", new ChessGame()));
+        // the second change takes a snapshot, the third is only in the log
+        makeMove(crashed, game);
+        crashed.userDAO().createUser(new UserData("user", "password", "email"));
+
+        try (LogStore store = new LogStore(directory, 2)) {
+            Assertions.assertEquals(List.of(E4), store.gameDAO().listMoves(game.gameID()));
+            Assertions.assertNotNull(store.userDAO().getUser("user"));
+        }
+    }
+
+    @Test
+    void tornRecordIsDropped() throws Exception {
+        LogStore crashed = new LogStore(directory, 1000);
+        crashed.userDAO().createUser(new UserData("kept", "password", "email"));
+        crashed.userDAO().createUser(new UserData("torn", "password", "email"));
+        chopLastBytes(directory.resolve("store.log"), 3);
+
+        try (LogStore store = new LogStore(directory, 1000)) {
+            Assertions.assertNotNull(store.userDAO().getUser("kept"));
+            Assertions.assertNull(store.userDAO().getUser("torn"));
+            // appends carry on after the last good record
+            store.userDAO().createUser(new UserData("after", "password", "email"));
+        }
+        try (LogStore store = new LogStore(directory, 1000)) {
+            Assertions.assertNotNull(store.userDAO().getUser("after"));
+        }
+    }
+
+    @Test
+    void clearIsLogged() throws Exception {
+        try (LogStore store = new LogStore(directory, 1000)) {
+            store.gameDAO().createGame(new GameData(0, null, null, "game", new ChessGame()));
+            store.gameDAO().clear();
+        }
+        try (LogStore store = new LogStore(directory, 1000)) {
+            Assertions.assertTrue(store.gameDAO().listGames().isEmpty());
+        }
+    }
+
+    @Test
+    void failedWriteIsRolledBack() throws Exception {
+        boolean[] failing = new boolean[1];
+        WriteAheadLog failingLog = new WriteAheadLog(directory) {
+            @Override
+            public void sync(long sequence) throws IOException {
+                if (failing[0]) {
+                    throw new IOException("disk full");
+                }
+                super.sync(sequence);
+            }
+        };
+        try (LogStore store = new LogStore(failingLog, 1000)) {
+            store.userDAO().createUser(new UserData("kept", "password", "email"));
+            GameData game = store.gameDAO().createGame(new GameData(0, null, null, "game", new ChessGame()));
+
+            failing[0] = true;
+            Assertions.assertThrows(DataAccessException.class,
+                    () -> store.userDAO().createUser(new UserData("lost", "password", "email")));
+            Assertions.assertThrows(DataAccessException.class, () -> makeMove(store, game.copy()));
+            failing[0] = false;
+
+            // memory is back to what's on disk, and nothing more is accepted
+            Assertions.assertNotNull(store.userDAO().getUser("kept"));
+            Assertions.assertNull(store.userDAO().getUser("lost"));
+            Assertions.assertEquals(new ChessGame(), store.gameDAO().getGame(game.gameID()).game());
+            Assertions.assertTrue(store.gameDAO().listMoves(game.gameID()).isEmpty());
+            Assertions.assertThrows(DataAccessException.class,
+                    () -> store.authDAO().createAuth(new AuthData("token", "kept")));
+        }
+    }
+
+    private static GameData makeMove(LogStore store, GameData game) throws DataAccessException, InvalidMoveException {
+        game.game().makeMove(E4);
+        store.gameDAO().recordMove(game, E4);
+        return game;
+    }
+
+    private static void chopLastBytes(Path file, int count) throws IOException {
+        try (var channel = Files.newByteChannel(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - count);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import model.GameData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class MemoryGameDAOTest {
+
+    private final MemoryGameDAO games = new MemoryGameDAO();
+
+    @Test
+    void createdGamesGetNewIDs() throws DataAccessException {
+        GameData first = games.createGame(new GameData(0, null, null, "first", new ChessGame()));
+        GameData chosen = games.createGame(new GameData(10, null, null, "chosen", new ChessGame()));
+        GameData next = games.createGame(new GameData(0, null, null, "next", new ChessGame()));
+
+        Assertions.assertEquals(1, first.gameID());
+        Assertions.assertEquals(10, chosen.gameID());
+        Assertions.assertEquals(11, next.gameID());
+        Assertions.assertThrows(DataAccessException.class,
+                () -> games.createGame(new GameData(10, null, null, "taken", new ChessGame())));
+    }
+
+    @Test
+    void concurrentCreatesGetDistinctIDs() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<GameData>> created = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                created.add(executor.submit(() -> games.createGame(new GameData(0, null, null, "game", null))));
+            }
+            Set<Integer> gameIDs = new HashSet<>();
+            for (Future<GameData> game : created) {
+                gameIDs.add(game.get().gameID());
+            }
+            Assertions.assertEquals(1000, gameIDs.size());
+            Assertions.assertEquals(1000, games.listGames().size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void storedGamesAreCopied() throws DataAccessException, InvalidMoveException {
+        GameData game = games.createGame(new GameData(0, null, null, "game", new ChessGame()));
+        game.game().makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+
+        Assertions.assertEquals(new ChessGame(), games.getGame(game.gameID()).game());
+        games.updateGame(game);
+        Assertions.assertEquals(game.game(), games.getGame(game.gameID()).game());
+        Assertions.assertThrows(DataAccessException.class,
+                () -> games.updateGame(new GameData(99, null, null, "missing", new ChessGame())));
+    }
+}
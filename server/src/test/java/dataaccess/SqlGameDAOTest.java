@@ -1,7 +1,11 @@
 package dataaccess;
 
 import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
 import model.GameData;
+import model.GameSummary;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,6 +14,8 @@ import com.google.gson.Gson;
 
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 class SqlGameDAOTest {
     SqlGameDAO sqlGameDao;
@@ -24,6 +30,9 @@ class SqlGameDAOTest {
             try (var statement = conn.prepareStatement("TRUNCATE gameTable")) {
                 statement.executeUpdate();
             }
+            try (var statement = conn.prepareStatement("TRUNCATE gameMoves")) {
+                statement.executeUpdate();
+            }
         }
     }
 
@@ -33,6 +42,9 @@ class SqlGameDAOTest {
             try (var statement = conn.prepareStatement("TRUNCATE gameTable")) {
                 statement.executeUpdate();
             }
+            try (var statement = conn.prepareStatement("TRUNCATE gameMoves")) {
+                statement.executeUpdate();
+            }
         }
     }
 
@@ -174,10 +186,99 @@ class SqlGameDAOTest {
         Assertions.assertThrows(DataAccessException.class, () -> sqlGameDao.updateGame(nonExistentGame));
     }
 
+    @Test
+    void updateGamesIsAllOrNothing() throws DataAccessException {
+        sqlGameDao.createGame(new GameData(1, "white", "black", "match 1", new ChessGame()));
+        sqlGameDao.createGame(new GameData(2, "white", "black", "match 2", new ChessGame()));
+        GameData first = new GameData(1, "white", null, "match 1", new ChessGame());
+        GameData second = new GameData(2, null, "black", "match 2", new ChessGame());
+
+        sqlGameDao.updateGames(List.of(first, second));
+        Assertions.assertEquals(first, sqlGameDao.getGame(1));
+        Assertions.assertEquals(second, sqlGameDao.getGame(2));
+
+        GameData missing = new GameData(9999, null, null, "missing", new ChessGame());
+        Assertions.assertThrows(DataAccessException.class, () -> sqlGameDao.updateGames(List.of(
+                new GameData(1, "changed", null, "match 1", new ChessGame()), missing)));
+        Assertions.assertEquals(first, sqlGameDao.getGame(1));
+    }
+
     @Test
     void gameIDinUseNegativeTest() throws Exception {
         // Check a non-existent game ID (should return false)
         boolean result = sqlGameDao.gameIDinUse(9999);
         Assertions.assertFalse(result, "gameIDinUse should return false for unused ID");
     }
-}
\ No newline at end of file
+
+    @Test
+    void recordMovesReplaysFromSnapshot() throws Exception {
+        sqlGameDao = new SqlGameDAO(2);
+        ChessGame chessGame = new ChessGame();
+        sqlGameDao.createGame(new GameData(1, "easton", "canon", "match 1", chessGame));
+
+        List<ChessMove> moves = List.of(
+                new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null),
+                new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null),
+                new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        for (ChessMove move : moves) {
+            chessGame.makeMove(move);
+            sqlGameDao.recordMove(new GameData(1, "easton", "canon", "match 1", chessGame), move);
+        }
+
+        // the third move is only in the move log, past the snapshot taken after the second
+        Assertions.assertEquals(chessGame, sqlGameDao.getGame(1).game());
+        Assertions.assertEquals(chessGame, sqlGameDao.listGames().iterator().next().game());
+        Assertions.assertEquals(moves, sqlGameDao.listMoves(1));
+    }
+
+    @Test
+    void listGamesSeesOneSnapshot() throws Exception {
+        sqlGameDao = new SqlGameDAO(2);
+        ChessGame chessGame = new ChessGame();
+        sqlGameDao.createGame(new GameData(1, "easton", "canon", "match 1", chessGame));
+        ChessMove first = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        chessGame.makeMove(first);
+        sqlGameDao.recordMove(new GameData(1, "easton", "canon", "match 1", chessGame), first);
+        ChessGame afterFirst = chessGame.clone();
+
+        try (var conn = DatabaseManager.getConnection()) {
+            SqlGameDAO.beginConsistentRead(conn);
+            Map<Integer, GameData> games = sqlGameDao.readGames(conn);
+
+            // the second move takes a snapshot, committed on another connection between the two reads
+            ChessMove second = new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null);
+            chessGame.makeMove(second);
+            sqlGameDao.recordMove(new GameData(1, "easton", "canon", "match 1", chessGame), second);
+
+            SqlGameDAO.replayMovesSinceSnapshots(conn, games);
+            Assertions.assertEquals(afterFirst, games.get(1).game());
+        }
+        Assertions.assertEquals(chessGame, sqlGameDao.listGames().iterator().next().game());
+    }
+
+    @Test
+    void recordMovesNegativeTestGameNotFound() throws InvalidMoveException {
+        ChessGame chessGame = new ChessGame();
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        chessGame.makeMove(move);
+
+        Assertions.assertThrows(DataAccessException.class,
+                () -> sqlGameDao.recordMove(new GameData(9999, "white", "black", "nonexistent", chessGame), move));
+    }
+
+    @Test
+    void listSummariesFiltersAndPages() throws DataAccessException {
+        ChessGame endedGame = new ChessGame();
+        endedGame.setGameEnded(true);
+        sqlGameDao.createGame(new GameData(1, "easton", "canon", "match 1", endedGame));
+        sqlGameDao.createGame(new GameData(2, "easton", null, "match 2", new ChessGame()));
+        sqlGameDao.createGame(new GameData(3, null, "josh", "match 3", new ChessGame()));
+
+        Assertions.assertEquals(List.of(new GameSummary(2, "easton", null, "match 2", false)),
+                sqlGameDao.listSummaries(new GameQuery(0, 10, true, "easton", null)));
+        Assertions.assertEquals(List.of(new GameSummary(1, "easton", "canon", "match 1", true)),
+                sqlGameDao.listSummaries(new GameQuery(0, 10, false, null, true)));
+        Assertions.assertEquals(List.of(new GameSummary(3, null, "josh", "match 3", false)),
+                sqlGameDao.listSummaries(new GameQuery(2, 1, false, null, null)));
+    }
+}
@@ -0,0 +1,89 @@
+package server.websocket;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class GameActorsTest {
+
+    GameActors actors = new GameActors(4);
+
+    @AfterEach
+    void tearDown() {
+        actors.close();
+    }
+
+    @Test
+    void tasksForOneGameRunInOrderOneAtATime() throws InterruptedException {
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(100);
+
+        for (int i = 0; i < 100; i++) {
+            int task = i;
+            actors.submit(1, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                order.add(task);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, maxRunning.get());
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(i, order.get(i));
+        }
+    }
+
+    @Test
+    void differentGamesRunInParallel() throws InterruptedException {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CountDownLatch done = new CountDownLatch(2);
+        for (int gameID = 1; gameID <= 2; gameID++) {
+            actors.submit(gameID, () -> {
+                bothStarted.countDown();
+                try {
+                    // only finishes if the other game is running at the same time
+                    if (bothStarted.await(5, TimeUnit.SECONDS)) {
+                        done.countDown();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failingTaskDoesNotStopTheGame() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        actors.submit(1, () -> {
+            throw new IllegalStateException("boom");
+        });
+        actors.submit(1, done::countDown);
+        Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void idleGamesAreForgotten() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        actors.submit(1, done::countDown);
+        Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (actors.activeGames() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(0, actors.activeGames());
+    }
+}
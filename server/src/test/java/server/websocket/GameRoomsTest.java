@@ -0,0 +1,62 @@
+package server.websocket;
+
+import org.eclipse.jetty.websocket.api.Session;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Set;
+
+class GameRoomsTest {
+
+    GameRooms rooms = new GameRooms();
+
+    @Test
+    void sessionsAreGroupedByGame() {
+        Session first = stubSession();
+        Session second = stubSession();
+        Session other = stubSession();
+        rooms.join(1, first);
+        rooms.join(1, second);
+        rooms.join(2, other);
+
+        Assertions.assertEquals(Set.of(first, second), Set.copyOf(rooms.sessions(1)));
+        Assertions.assertEquals(Set.of(other), Set.copyOf(rooms.sessions(2)));
+        Assertions.assertEquals(2, rooms.gameOf(other));
+    }
+
+    @Test
+    void joiningAnotherGameMovesTheSession() {
+        Session session = stubSession();
+        rooms.join(1, session);
+        rooms.join(2, session);
+
+        Assertions.assertTrue(rooms.sessions(1).isEmpty());
+        Assertions.assertEquals(Set.of(session), Set.copyOf(rooms.sessions(2)));
+    }
+
+    @Test
+    void leaveRemovesFromGame() {
+        Session session = stubSession();
+        Session stays = stubSession();
+        rooms.join(1, session);
+        rooms.join(1, stays);
+
+        rooms.leave(session);
+        // leaving twice or without joining is harmless
+        rooms.leave(session);
+        rooms.leave(stubSession());
+
+        Assertions.assertEquals(Set.of(stays), Set.copyOf(rooms.sessions(1)));
+        Assertions.assertNull(rooms.gameOf(session));
+    }
+
+    private static Session stubSession() {
+        return (Session) Proxy.newProxyInstance(GameRoomsTest.class.getClassLoader(), new Class<?>[]{Session.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> null;
+                });
+    }
+}
@@ -0,0 +1,145 @@
+package server.websocket;
+
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import websocket.messages.ServerMessage;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+class SessionOutboxTest {
+
+    private static final SessionOutbox.Frame NOTIFICATION =
+            new SessionOutbox.Frame(ServerMessage.ServerMessageType.NOTIFICATION, "note");
+
+    // writes only complete when the test says so, like a slow client
+    final List<String> sent = new ArrayList<>();
+    final List<WriteCallback> pending = new ArrayList<>();
+    boolean open = true;
+    int closeCode;
+
+    @Test
+    void oneWriteAtATimeInOrder() {
+        SessionOutbox outbox = new SessionOutbox(stubSession(), 10);
+        outbox.send(frame("a"));
+        outbox.send(frame("b"));
+        outbox.send(frame("c"));
+        Assertions.assertEquals(List.of("a"), sent);
+
+        completeWrite();
+        Assertions.assertEquals(List.of("a", "b"), sent);
+        completeWrite();
+        completeWrite();
+        Assertions.assertEquals(List.of("a", "b", "c"), sent);
+        Assertions.assertTrue(pending.isEmpty());
+    }
+
+    @Test
+    void queuedLoadGameIsReplacedByNewerOne() {
+        SessionOutbox outbox = new SessionOutbox(stubSession(), 10);
+        outbox.send(NOTIFICATION);
+        outbox.send(loadGame("board 1"));
+        outbox.send(frame("b"));
+        outbox.send(loadGame("board 2"));
+
+        completeWrite();
+        completeWrite();
+        completeWrite();
+        Assertions.assertEquals(List.of("note", "board 2", "b"), sent);
+    }
+
+    @Test
+    void replacedLoadGameKeepsItsPlace() {
+        SessionOutbox outbox = new SessionOutbox(stubSession(), 10);
+        outbox.send(frame("a"));
+        outbox.send(loadGame("board 1"));
+        outbox.send(NOTIFICATION);
+        outbox.send(loadGame("board 2"));
+
+        completeWrite();
+        completeWrite();
+        completeWrite();
+        Assertions.assertEquals(List.of("a", "board 2", "note"), sent);
+    }
+
+    @Test
+    void slowClientIsDisconnected() {
+        SessionOutbox outbox = new SessionOutbox(stubSession(), 2);
+        outbox.send(frame("a"));
+        outbox.send(frame("b"));
+        outbox.send(frame("c"));
+        Assertions.assertFalse(outbox.isClosed());
+
+        outbox.send(frame("d"));
+        Assertions.assertTrue(outbox.isClosed());
+        Assertions.assertEquals(1008, closeCode);
+
+        // nothing else goes out once it's closed
+        completeWrite();
+        outbox.send(frame("e"));
+        Assertions.assertEquals(List.of("a"), sent);
+    }
+
+    @Test
+    void failedWriteClosesSession() {
+        SessionOutbox outbox = new SessionOutbox(stubSession(), 10);
+        outbox.send(frame("a"));
+        outbox.send(frame("b"));
+
+        pending.remove(0).writeFailed(new RuntimeException("broken pipe"));
+        Assertions.assertTrue(outbox.isClosed());
+        Assertions.assertEquals(List.of("a"), sent);
+    }
+
+    @Test
+    void closingRunsCallbackOnce() {
+        int[] closed = new int[1];
+        SessionOutbox outbox = new SessionOutbox(stubSession(), 1, () -> closed[0]++);
+        outbox.send(frame("a"));
+        outbox.send(frame("b"));
+        outbox.send(frame("c"));
+
+        pending.remove(0).writeFailed(new RuntimeException("broken pipe"));
+        Assertions.assertEquals(1, closed[0]);
+    }
+
+    private void completeWrite() {
+        pending.remove(0).writeSuccess();
+    }
+
+    private static SessionOutbox.Frame frame(String text) {
+        return new SessionOutbox.Frame(ServerMessage.ServerMessageType.NOTIFICATION, text);
+    }
+
+    private static SessionOutbox.Frame loadGame(String text) {
+        return new SessionOutbox.Frame(ServerMessage.ServerMessageType.LOAD_GAME, text);
+    }
+
+    private Session stubSession() {
+        RemoteEndpoint remote = (RemoteEndpoint) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{RemoteEndpoint.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("sendString")) {
+                        sent.add((String) args[0]);
+                        pending.add((WriteCallback) args[1]);
+                    }
+                    return null;
+                });
+        return (Session) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Session.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getRemote" -> remote;
+                    case "isOpen" -> open;
+                    case "close" -> {
+                        open = false;
+                        if (args != null && args.length == 2) {
+                            closeCode = (Integer) args[0];
+                        }
+                        yield null;
+                    }
+                    default -> null;
+                });
+    }
+}
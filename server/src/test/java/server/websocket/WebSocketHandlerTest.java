@@ -0,0 +1,150 @@
+package server.websocket;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import dataaccess.DataAccessException;
+import dataaccess.MemoryAuthDAO;
+import dataaccess.MemoryGameDAO;
+import dataaccess.MemoryUserDAO;
+import model.AuthData;
+import model.GameData;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.GameService;
+import service.UserService;
+import websocket.commands.Connect;
+import websocket.commands.MakeMove;
+import websocket.commands.Resync;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.MoveMessage;
+import websocket.messages.ServerMessage;
+import websocket.messages.ServerMessageDeserializer;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class WebSocketHandlerTest {
+
+    private static final ChessMove E4 = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(ServerMessage.class, new ServerMessageDeserializer())
+            .create();
+
+    MemoryGameDAO gameDAO;
+    GameActors gameActors;
+    WebSocketHandler handler;
+
+    @BeforeEach
+    void setUp() throws DataAccessException {
+        MemoryAuthDAO authDAO = new MemoryAuthDAO();
+        gameDAO = new MemoryGameDAO();
+        authDAO.createAuth(new AuthData("whiteToken", "white"));
+        authDAO.createAuth(new AuthData("blackToken", "black"));
+        gameDAO.createGame(new GameData(1, "white", "black", "game", new ChessGame()));
+
+        gameActors = new GameActors(1);
+        handler = new WebSocketHandler(new GameService(gameDAO, authDAO), new UserService(new MemoryUserDAO(), authDAO),
+                new GameRooms(), gameActors);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gameActors.close();
+    }
+
+    @Test
+    void moveUpdatesOnlyGoToSessionsThatAskedForThem() throws Exception {
+        List<String> white = new ArrayList<>();
+        List<String> black = new ArrayList<>();
+        Session whiteSession = connect(white, new Connect("whiteToken", 1, true));
+        connect(black, new Connect("blackToken", 1));
+        white.clear();
+        black.clear();
+
+        send(whiteSession, new MakeMove("whiteToken", 1, E4, null));
+
+        MoveMessage move = (MoveMessage) messageOfType(white, ServerMessage.ServerMessageType.MOVE);
+        Assertions.assertEquals(E4, move.getMove());
+        Assertions.assertEquals(1, move.getSequence());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, move.getTeamTurn());
+        Assertions.assertNull(messageOfType(white, ServerMessage.ServerMessageType.LOAD_GAME));
+
+        LoadGameMessage loadGame = (LoadGameMessage) messageOfType(black, ServerMessage.ServerMessageType.LOAD_GAME);
+        Assertions.assertEquals(gameDAO.getGame(1).game(), loadGame.getGame());
+        Assertions.assertNull(messageOfType(black, ServerMessage.ServerMessageType.MOVE));
+    }
+
+    @Test
+    void resyncSendsTheWholeGame() throws Exception {
+        List<String> white = new ArrayList<>();
+        Session whiteSession = connect(white, new Connect("whiteToken", 1, true));
+        send(whiteSession, new MakeMove("whiteToken", 1, E4, null));
+        white.clear();
+
+        send(whiteSession, new Resync("whiteToken", 1));
+
+        Assertions.assertEquals(1, white.size());
+        LoadGameMessage loadGame = (LoadGameMessage) messageOfType(white, ServerMessage.ServerMessageType.LOAD_GAME);
+        ChessGame expected = new ChessGame();
+        expected.makeMove(E4);
+        Assertions.assertEquals(expected, loadGame.getGame());
+    }
+
+    private Session connect(List<String> sent, Connect command) throws Exception {
+        Session session = stubSession(sent);
+        handler.onConnect(session);
+        send(session, command);
+        return session;
+    }
+
+    // returns once the game's actor has run the command
+    private void send(Session session, Object command) throws Exception {
+        handler.onMessage(session, new Gson().toJson(command));
+        CountDownLatch done = new CountDownLatch(1);
+        gameActors.submit(1, done::countDown);
+        Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    private static ServerMessage messageOfType(List<String> sent, ServerMessage.ServerMessageType type) {
+        for (String text : sent) {
+            ServerMessage message = GSON.fromJson(text, ServerMessage.class);
+            if (message.getServerMessageType() == type) {
+                return message;
+            }
+        }
+        return null;
+    }
+
+    // writes complete straight away
+    private Session stubSession(List<String> sent) {
+        List<String> synchronizedSent = Collections.synchronizedList(sent);
+        RemoteEndpoint remote = (RemoteEndpoint) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{RemoteEndpoint.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("sendString")) {
+                        synchronizedSent.add((String) args[0]);
+                        ((WriteCallback) args[1]).writeSuccess();
+                    }
+                    return null;
+                });
+        return (Session) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Session.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getRemote" -> remote;
+                    case "isOpen" -> true;
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> null;
+                });
+    }
+}
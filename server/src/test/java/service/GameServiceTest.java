@@ -4,14 +4,15 @@ import chess.ChessGame;
 import dataaccess.*;
 import model.AuthData;
 import model.GameData;
+import model.GameSummary;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import requestresult.JoinRequest;
+import requestresult.ListRequest;
 import requestresult.ListResult;
 
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -43,12 +44,12 @@ class GameServiceTest {
             fail("Exception should not be thrown: " + e.getMessage());
         }
 
-        Collection<GameData> expectedGames = new HashSet<>(Arrays.asList(
-                new GameData(5, "Easton", "Canon", "Match1", game1),
-                new GameData(6, "Canon", "Easton", "Match2", game2)
-        ));
+        List<GameSummary> expectedGames = List.of(
+                new GameSummary(5, "Easton", "Canon", "Match1", false),
+                new GameSummary(6, "Canon", "Easton", "Match2", false)
+        );
 
-        Assertions.assertEquals(actualGames, new ListResult(expectedGames));
+        Assertions.assertEquals(actualGames, new ListResult(expectedGames, null));
     }
 
     @Test
@@ -64,14 +65,14 @@ class GameServiceTest {
             fail("Exception should not be thrown: " + e.getMessage());
         }
 
-        ListResult gameList = new ListResult(new HashSet<>());
+        ListResult gameList = new ListResult(List.of(), null);
         try {
             gameList = gameService.list("1234");
         } catch (UnauthorizedException e) {
             fail("Exception should not be thrown: " + e.getMessage());
         }
 
-        Collection<GameData> gameListUnwrapped = gameList.games();
+        Collection<GameSummary> gameListUnwrapped = gameList.games();
 
         assertNotNull(gameListUnwrapped, "Game list should not be null");
         assertFalse(gameListUnwrapped.isEmpty(), "Game list should not be empty");
@@ -104,13 +105,13 @@ class GameServiceTest {
             fail("Exception should not be thrown: " + e.getMessage());
         }
 
-        Collection<GameData> expectedGames = new HashSet<>(Arrays.asList(
-                new GameData(5, "easton", "Canon", "Match1", game1),
-                new GameData(6, "Canon", "easton", "Match2", game2)
-        ));
+        List<GameSummary> expectedGames = List.of(
+                new GameSummary(5, "easton", "Canon", "Match1", false),
+                new GameSummary(6, "Canon", "easton", "Match2", false)
+        );
 
         try {
-            Assertions.assertEquals(gameService.list("1234"), new ListResult(expectedGames));
+            Assertions.assertEquals(gameService.list("1234"), new ListResult(expectedGames, null));
         } catch (UnauthorizedException e) {
             fail("Exception should not be thrown: " + e.getMessage());
         }
@@ -141,6 +142,57 @@ class GameServiceTest {
         Assertions.assertTrue(gameDB.isEmpty());
         Assertions.assertTrue(authDB.isEmpty());
     }
+    @Test
+    void listPagesAndFilters() throws DataAccessException, UnauthorizedException {
+        MemoryGameDAO gameDB = new MemoryGameDAO();
+        MemoryAuthDAO authDB = new MemoryAuthDAO();
+        GameService gameService = new GameService(gameDB, authDB);
+        authDB.createAuth(new AuthData("1234", "easton"));
+
+        ChessGame ended = new ChessGame();
+        ended.setGameEnded(true);
+        gameDB.createGame(new GameData(1, "easton", "canon", "Match1", ended));
+        gameDB.createGame(new GameData(2, null, "canon", "Match2", new ChessGame()));
+        gameDB.createGame(new GameData(3, "josh", null, "Match3", new ChessGame()));
+        gameDB.createGame(new GameData(4, "easton", null, "Match4", new ChessGame()));
+
+        ListResult firstPage = gameService.list("1234", new ListRequest(3, null, null, null, null));
+        Assertions.assertEquals(List.of(1, 2, 3), firstPage.games().stream().map(GameSummary::gameID).toList());
+        Assertions.assertEquals(3, firstPage.nextCursor());
+        ListResult secondPage = gameService.list("1234", new ListRequest(3, firstPage.nextCursor(), null, null, null));
+        Assertions.assertEquals(List.of(4), secondPage.games().stream().map(GameSummary::gameID).toList());
+        Assertions.assertNull(secondPage.nextCursor());
+
+        ListResult open = gameService.list("1234", new ListRequest(null, null, true, "easton", false));
+        Assertions.assertEquals(List.of(new GameSummary(4, "easton", null, "Match4", false)), open.games());
+        ListResult finished = gameService.list("1234", new ListRequest(null, null, null, null, true));
+        Assertions.assertEquals(List.of(new GameSummary(1, "easton", "canon", "Match1", true)), finished.games());
+
+        assertThrows(BadRequestException.class,
+                () -> gameService.list("1234", new ListRequest(0, null, null, null, null)));
+    }
+
+    @Test
+    void listWithoutPagingReturnsEveryGame() throws DataAccessException, UnauthorizedException {
+        MemoryGameDAO gameDB = new MemoryGameDAO();
+        MemoryAuthDAO authDB = new MemoryAuthDAO();
+        GameService gameService = new GameService(gameDB, authDB);
+        authDB.createAuth(new AuthData("1234", "easton"));
+
+        int count = GameService.DEFAULT_PAGE_SIZE + 50;
+        for (int i = 1; i <= count; i++) {
+            gameDB.createGame(new GameData(i, null, null, "Match" + i, new ChessGame()));
+        }
+
+        ListResult result = gameService.list("1234");
+        Assertions.assertEquals(count, result.games().size());
+        Assertions.assertNull(result.nextCursor());
+        // a cursor alone still pages
+        ListResult page = gameService.list("1234", new ListRequest(null, 0, null, null, null));
+        Assertions.assertEquals(GameService.DEFAULT_PAGE_SIZE, page.games().size());
+        Assertions.assertEquals(GameService.DEFAULT_PAGE_SIZE, page.nextCursor());
+    }
+
     @Test
     void listUnauthorized() {
         MemoryGameDAO gameDB = new MemoryGameDAO();
@@ -48,7 +48,7 @@ class UserServiceTest {
     @DisplayName("Test login with correct credentials")
     void loginSuccess() {
         try {
-            userDB.createUser(new UserData("Easton", hashPassword("123"), "easton.crowther@gmail.com"));
+            userDB.createUser(new UserData("Easton", "123", "easton.crowther@gmail.com"));
         } catch (DataAccessException e) {
             fail("Unexpected exception: " + e.getMessage());
         }
@@ -64,15 +64,12 @@ class UserServiceTest {
         Assertions.assertEquals("Easton", successTest.username(), "Username should match the one used for login.");
         Assertions.assertNotNull(successTest.authToken(), "Auth token should be generated upon successful login.");
     }
-    String hashPassword(String password) {
-        return org.mindrot.jbcrypt.BCrypt.hashpw(password, org.mindrot.jbcrypt.BCrypt.gensalt());
-    }
 
     @Test
     @DisplayName("Test logout")
     void logout() {
         try {
-            userDB.createUser(new UserData("Easton", hashPassword("123"), "easton.crowther@gmail.com"));
+            userDB.createUser(new UserData("Easton", "123", "easton.crowther@gmail.com"));
         } catch (DataAccessException e) {
             fail("Unexpected exception: " + e.getMessage());
         }
@@ -133,7 +130,7 @@ class UserServiceTest {
     @DisplayName("Test login with incorrect password")
     void loginIncorrectPassword() {
         try {
-            userDB.createUser(new UserData("Easton", hashPassword("123"), "easton.crowther@gmail.com"));
+            userDB.createUser(new UserData("Easton", "123", "easton.crowther@gmail.com"));
         } catch (DataAccessException e) {
             fail("Unexpected exception: " + e.getMessage());
         }
@@ -0,0 +1,197 @@
+package chess;
+
+/**
+ * Precomputed attack bitboards for every piece type, built once when the
+ * class is loaded.
+ * <p>
+ * Knights, kings and pawns have fixed attack patterns, so they are looked up
+ * directly by square. Rooks and bishops depend on which squares block them;
+ * for those we keep every possible blocker arrangement of the squares that
+ * matter (the "relevant" mask) and index the table by extracting those bits
+ * from the occupancy with {@link Long#compress}, which compiles down to the
+ * PEXT instruction where the CPU supports it.
+ */
+final class AttackTables {
+    private static final int[][] KNIGHT_OFFSETS = {
+            {2, 1}, {2, -1}, {1, 2}, {1, -2}, {-2, 1}, {-2, -1}, {-1, 2}, {-1, -2}
+    };
+    private static final int[][] KING_OFFSETS = {
+            {1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
+    };
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    private static final long[] KNIGHT_ATTACKS = new long[Bitboard.SQUARES];
+    private static final long[] KING_ATTACKS = new long[Bitboard.SQUARES];
+    // indexed by TeamColor ordinal, then square
+    private static final long[][] PAWN_ATTACKS = new long[2][Bitboard.SQUARES];
+
+    private static final long[] ROOK_MASKS = new long[Bitboard.SQUARES];
+    private static final int[] ROOK_OFFSETS = new int[Bitboard.SQUARES];
+    private static final long[] ROOK_ATTACKS;
+
+    private static final long[] BISHOP_MASKS = new long[Bitboard.SQUARES];
+    private static final int[] BISHOP_OFFSETS = new int[Bitboard.SQUARES];
+    private static final long[] BISHOP_ATTACKS;
+
+    // squares strictly between two squares sharing a rank, file or diagonal
+    private static final long[][] BETWEEN = new long[Bitboard.SQUARES][Bitboard.SQUARES];
+    // the whole rank, file or diagonal through two aligned squares
+    private static final long[][] LINE = new long[Bitboard.SQUARES][Bitboard.SQUARES];
+
+    static {
+        for (int square = 0; square < Bitboard.SQUARES; square++) {
+            KNIGHT_ATTACKS[square] = leaperAttacks(square, KNIGHT_OFFSETS);
+            KING_ATTACKS[square] = leaperAttacks(square, KING_OFFSETS);
+            PAWN_ATTACKS[ChessGame.TeamColor.WHITE.ordinal()][square] = leaperAttacks(square, new int[][]{{1, 1}, {1, -1}});
+            PAWN_ATTACKS[ChessGame.TeamColor.BLACK.ordinal()][square] = leaperAttacks(square, new int[][]{{-1, 1}, {-1, -1}});
+        }
+        ROOK_ATTACKS = buildSlidingTable(ROOK_DIRECTIONS, ROOK_MASKS, ROOK_OFFSETS);
+        BISHOP_ATTACKS = buildSlidingTable(BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_OFFSETS);
+        buildLines(ROOK_DIRECTIONS);
+        buildLines(BISHOP_DIRECTIONS);
+    }
+
+    private AttackTables() {}
+
+    static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * @return the squares a pawn of the given color standing on square attacks
+     */
+    static long pawnAttacks(ChessGame.TeamColor color, int square) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    static long rookAttacks(int square, long occupied) {
+        return ROOK_ATTACKS[ROOK_OFFSETS[square] + (int) Long.compress(occupied, ROOK_MASKS[square])];
+    }
+
+    static long bishopAttacks(int square, long occupied) {
+        return BISHOP_ATTACKS[BISHOP_OFFSETS[square] + (int) Long.compress(occupied, BISHOP_MASKS[square])];
+    }
+
+    static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    /**
+     * @return the squares strictly between from and to, or 0 if they don't
+     * share a rank, file or diagonal
+     */
+    static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * @return every square on the rank, file or diagonal running through both
+     * squares, or 0 if they aren't aligned
+     */
+    static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    private static long leaperAttacks(int square, int[][] offsets) {
+        long attacks = 0;
+        for (int[] offset : offsets) {
+            int row = Bitboard.row(square) + offset[0];
+            int col = Bitboard.column(square) + offset[1];
+            if (Bitboard.onBoard(row, col)) {
+                attacks |= Bitboard.bit(Bitboard.square(row, col));
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Fills in the relevant-blocker masks and table offsets for every square
+     * and returns the flattened attack table they index into.
+     */
+    private static long[] buildSlidingTable(int[][] directions, long[] masks, int[] offsets) {
+        int size = 0;
+        for (int square = 0; square < Bitboard.SQUARES; square++) {
+            masks[square] = relevantMask(square, directions);
+            offsets[square] = size;
+            size += 1 << Long.bitCount(masks[square]);
+        }
+
+        long[] table = new long[size];
+        for (int square = 0; square < Bitboard.SQUARES; square++) {
+            int subsets = 1 << Long.bitCount(masks[square]);
+            for (int index = 0; index < subsets; index++) {
+                long blockers = Long.expand(index, masks[square]);
+                table[offsets[square] + index] = slidingAttacks(square, blockers, directions);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * The squares whose occupancy can change a slider's attacks: every square
+     * along its rays except the last one, since a piece on the edge can't
+     * block anything behind it.
+     */
+    private static long relevantMask(int square, int[][] directions) {
+        long mask = 0;
+        for (int[] direction : directions) {
+            int row = Bitboard.row(square) + direction[0];
+            int col = Bitboard.column(square) + direction[1];
+            while (Bitboard.onBoard(row + direction[0], col + direction[1])) {
+                mask |= Bitboard.bit(Bitboard.square(row, col));
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    private static long slidingAttacks(int square, long blockers, int[][] directions) {
+        long attacks = 0;
+        for (int[] direction : directions) {
+            int row = Bitboard.row(square) + direction[0];
+            int col = Bitboard.column(square) + direction[1];
+            while (Bitboard.onBoard(row, col)) {
+                long bit = Bitboard.bit(Bitboard.square(row, col));
+                attacks |= bit;
+                if ((blockers & bit) != 0) {
+                    break;
+                }
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static void buildLines(int[][] directions) {
+        for (int square = 0; square < Bitboard.SQUARES; square++) {
+            for (int[] direction : directions) {
+                long line = Bitboard.bit(square)
+                        | ray(square, direction[0], direction[1])
+                        | ray(square, -direction[0], -direction[1]);
+
+                long between = 0;
+                int row = Bitboard.row(square) + direction[0];
+                int col = Bitboard.column(square) + direction[1];
+                while (Bitboard.onBoard(row, col)) {
+                    int target = Bitboard.square(row, col);
+                    BETWEEN[square][target] = between;
+                    LINE[square][target] = line;
+                    between |= Bitboard.bit(target);
+                    row += direction[0];
+                    col += direction[1];
+                }
+            }
+        }
+    }
+
+    private static long ray(int square, int rowStep, int colStep) {
+        return slidingAttacks(square, 0L, new int[][]{{rowStep, colStep}});
+    }
+}
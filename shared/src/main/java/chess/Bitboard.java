@@ -0,0 +1,55 @@
+package chess;
+
+/**
+ * Helpers for working with 64-bit bitboards.
+ * <p>
+ * Squares are numbered 0 - 63 starting at a1 (row 1, column 1) and moving
+ * left to right, then bottom to top, so bit {@code n} of a bitboard is set
+ * when square {@code n} is occupied.
+ */
+final class Bitboard {
+    static final int SQUARES = 64;
+    static final int PIECE_KINDS = 12;
+
+    private Bitboard() {}
+
+    /**
+     * @return the square index for a 1-indexed row and column
+     */
+    static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    /**
+     * @return the 1-indexed row of a square
+     */
+    static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    /**
+     * @return the 1-indexed column of a square
+     */
+    static int column(int square) {
+        return (square & 7) + 1;
+    }
+
+    static long bit(int square) {
+        return 1L << square;
+    }
+
+    static boolean onBoard(int row, int col) {
+        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
+    }
+
+    /**
+     * @return index of the bitboard holding pieces of the given color and type
+     */
+    static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+}
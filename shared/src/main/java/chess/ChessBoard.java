@@ -3,7 +3,6 @@ package chess;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Objects;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
@@ -13,8 +12,21 @@ import java.util.Objects;
  */
 public class ChessBoard implements Cloneable{
     private ChessPiece[][] board;
+
+    // bitboard index of the pieces in board, one long per color and piece type.
+    // These are derived from board and rebuilt whenever board is swapped out
+    // underneath them (e.g. by Gson), which is what indexedBoard tracks.
+    private transient long[] pieceBitboards;
+    private transient long[] colorBitboards;
+    private transient ChessPiece[][] indexedBoard;
+    // Zobrist key of the pieces, kept up to date alongside the bitboards
+    private transient long zobristKey;
+
     public ChessBoard() {
         board = new ChessPiece[8][8];
+        pieceBitboards = new long[Bitboard.PIECE_KINDS];
+        colorBitboards = new long[2];
+        indexedBoard = board;
     }
 
     /**
@@ -24,7 +36,47 @@ public class ChessBoard implements Cloneable{
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
+        ensureIndexed();
+        int square = Bitboard.square(position);
+        ChessPiece previous = board[position.getRow() - 1][position.getColumn() - 1];
+        if (previous != null) {
+            unindex(previous, square);
+        }
         board[position.getRow() - 1][position.getColumn() - 1] = piece;
+        if (piece != null) {
+            index(piece, square);
+        }
+    }
+
+    /**
+     * Moves a piece in place without checking that the move is legal,
+     * promoting it if the move calls for it
+     *
+     * @param move the move to make
+     * @return the record needed to undo the move with {@link #unmakeMove}
+     */
+    public MoveUndo makeMove(ChessMove move) {
+        ChessPiece moved = getPiece(move.getStartPosition());
+        ChessPiece captured = getPiece(move.getEndPosition());
+
+        ChessPiece placed = moved;
+        if (move.getPromotionPiece() != null) {
+            placed = new ChessPiece(moved.getTeamColor(), move.getPromotionPiece());
+        }
+        addPiece(move.getStartPosition(), null);
+        addPiece(move.getEndPosition(), placed);
+        return new MoveUndo(move, moved, captured);
+    }
+
+    /**
+     * Takes back a move made with {@link #makeMove}. Moves have to be undone
+     * in the reverse order they were made.
+     *
+     * @param undo the record returned when the move was made
+     */
+    public void unmakeMove(MoveUndo undo) {
+        addPiece(undo.move().getEndPosition(), undo.captured());
+        addPiece(undo.move().getStartPosition(), undo.moved());
     }
 
     /**
@@ -42,37 +94,132 @@ public class ChessBoard implements Cloneable{
      * finds the king given a certain team color
      */
     public ChessPosition getKing(ChessGame.TeamColor teamColor) {
-        // parse the board and return the position of the king of a given team
-        for (int row = 0; row <= 7; row ++) {
-            for (int col = 0; col <= 7; col ++) {
-                // make sure there is a piece there
-                if (board[row][col] != null) {
-                    ChessPiece piece = board[row][col];
-
-                    // make sure the piece belongs to the desired team
-                    if (piece.getTeamColor() == teamColor && piece.getPieceType() == ChessPiece.PieceType.KING) {
-                        // chess position is indexed 1 - 8
-                        return new ChessPosition(row + 1, col + 1);
-                    }
-                }
-            }
+        long kings = pieces(teamColor, ChessPiece.PieceType.KING);
+        if (kings == 0) {
+            // if no king is found for the given team
+            return null;
         }
-        // if no king is found for the given team
-        return null;
+        int square = Long.numberOfTrailingZeros(kings);
+        return ChessPosition.of(square);
     }
 
     public ChessPosition getPosition(ChessPiece piece) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                if (board[row][col] == piece) {
-                    return new ChessPosition(row + 1, col + 1);
-                }
+        // only squares holding the same kind of piece can hold this exact piece
+        long candidates = pieces(piece.getTeamColor(), piece.getPieceType());
+        while (candidates != 0) {
+            int square = Long.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+            if (getPiece(square) == piece) {
+                return ChessPosition.of(square);
             }
         }
         return null;
     }
 
+    /**
+     * @return bitboard of the squares holding the given team's pieces of the given type
+     */
+    long pieces(ChessGame.TeamColor teamColor, ChessPiece.PieceType type) {
+        ensureIndexed();
+        return pieceBitboards[Bitboard.pieceIndex(teamColor, type)];
+    }
+
+    /**
+     * @return bitboard of the squares holding any of the given team's pieces
+     */
+    long pieces(ChessGame.TeamColor teamColor) {
+        ensureIndexed();
+        return colorBitboards[teamColor.ordinal()];
+    }
+
+    /**
+     * @return bitboard of every occupied square
+     */
+    long occupied() {
+        ensureIndexed();
+        return colorBitboards[0] | colorBitboards[1];
+    }
+
+    /**
+     * Finds every piece of the attacking team that attacks a square.
+     *
+     * @param square   the square being attacked
+     * @param attacker the team doing the attacking
+     * @param occupied the occupancy sliding pieces are blocked by
+     * @return bitboard of the attacking pieces
+     */
+    long attackersOf(int square, ChessGame.TeamColor attacker, long occupied) {
+        ChessGame.TeamColor defender = (attacker == ChessGame.TeamColor.WHITE)
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        long queens = pieces(attacker, ChessPiece.PieceType.QUEEN);
+        long straightSliders = pieces(attacker, ChessPiece.PieceType.ROOK) | queens;
+        long diagonalSliders = pieces(attacker, ChessPiece.PieceType.BISHOP) | queens;
+
+        // probe outward from the square: a piece attacks it exactly when the
+        // same kind of piece standing on the square would attack that piece
+        return (AttackTables.knightAttacks(square) & pieces(attacker, ChessPiece.PieceType.KNIGHT))
+                | (AttackTables.kingAttacks(square) & pieces(attacker, ChessPiece.PieceType.KING))
+                | (AttackTables.pawnAttacks(defender, square) & pieces(attacker, ChessPiece.PieceType.PAWN))
+                | (AttackTables.rookAttacks(square, occupied) & straightSliders)
+                | (AttackTables.bishopAttacks(square, occupied) & diagonalSliders);
+    }
+
+    /**
+     * @return true if any piece of the attacking team attacks the square
+     */
+    boolean isSquareAttacked(int square, ChessGame.TeamColor attacker) {
+        return attackersOf(square, attacker, occupied()) != 0;
+    }
+
+    /**
+     * Gets the Zobrist hash of the pieces on the board. Boards with the same
+     * pieces on the same squares always have the same key, and it's kept up
+     * to date as pieces are added and moved rather than recomputed.
+     *
+     * @return the 64-bit key of the current piece placement
+     */
+    public long getZobristKey() {
+        ensureIndexed();
+        return zobristKey;
+    }
+
+    ChessPiece getPiece(int square) {
+        return board[square >>> 3][square & 7];
+    }
+
+    private void index(ChessPiece piece, int square) {
+        long bit = Bitboard.bit(square);
+        pieceBitboards[Bitboard.pieceIndex(piece.getTeamColor(), piece.getPieceType())] |= bit;
+        colorBitboards[piece.getTeamColor().ordinal()] |= bit;
+        zobristKey ^= Zobrist.piece(piece, square);
+    }
+
+    private void unindex(ChessPiece piece, int square) {
+        long bit = ~Bitboard.bit(square);
+        pieceBitboards[Bitboard.pieceIndex(piece.getTeamColor(), piece.getPieceType())] &= bit;
+        colorBitboards[piece.getTeamColor().ordinal()] &= bit;
+        zobristKey ^= Zobrist.piece(piece, square);
+    }
 
+    /**
+     * Rebuilds the bitboards if the board array was replaced without going
+     * through addPiece, which happens when a board is deserialized.
+     */
+    private void ensureIndexed() {
+        if (indexedBoard == board && pieceBitboards != null) {
+            return;
+        }
+        pieceBitboards = new long[Bitboard.PIECE_KINDS];
+        colorBitboards = new long[2];
+        zobristKey = 0;
+        for (int square = 0; square < Bitboard.SQUARES; square++) {
+            ChessPiece piece = getPiece(square);
+            if (piece != null) {
+                index(piece, square);
+            }
+        }
+        indexedBoard = board;
+    }
 
     /**
      * Sets the board to the default starting board
@@ -80,50 +227,47 @@ public class ChessBoard implements Cloneable{
      */
     public void resetBoard() {
         // put black pieces on the board
-        addPiece(new ChessPosition(1,1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(1,8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1,1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1,8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
 
-        addPiece(new ChessPosition(1,2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1,7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1,2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1,7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
 
-        addPiece(new ChessPosition(1,3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1,6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1,3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1,6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
 
-        addPiece(new ChessPosition(1,4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(1,5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(1,4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(1,5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
 
         addPawnsRow(2, ChessGame.TeamColor.WHITE);
 
         // put white pieces on the board
-        addPiece(new ChessPosition(8,1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(8,8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8,1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8,8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
 
-        addPiece(new ChessPosition(8,2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8,7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8,2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8,7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
 
-        addPiece(new ChessPosition(8,3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8,6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8,3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8,6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
 
-        addPiece(new ChessPosition(8,4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(8,5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(8,4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(8,5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
 
         addPawnsRow(7, ChessGame.TeamColor.BLACK);
     }
     public void addPawnsRow (int rowIndex, ChessGame.TeamColor teamColor) {
         for (int colIndex = 1; colIndex <= 8; colIndex ++) {
-            addPiece(new ChessPosition(rowIndex,colIndex), new ChessPiece(teamColor, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(rowIndex,colIndex), new ChessPiece(teamColor, ChessPiece.PieceType.PAWN));
         }
     }
 
     public Collection<ChessPiece> getAllPieces() {
-        Collection<ChessPiece> pieces = new ArrayList<>();
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                ChessPiece piece = board[row][col];
-                if (piece != null) {
-                    pieces.add(piece);
-                }
-            }
+        long occupied = occupied();
+        Collection<ChessPiece> pieces = new ArrayList<>(Long.bitCount(occupied));
+        while (occupied != 0) {
+            pieces.add(getPiece(Long.numberOfTrailingZeros(occupied)));
+            occupied &= occupied - 1;
         }
         return pieces;
     }
@@ -145,6 +289,12 @@ public class ChessBoard implements Cloneable{
                 }
             }
             clone.board = cloneBoard;
+
+            ensureIndexed();
+            clone.pieceBitboards = this.pieceBitboards.clone();
+            clone.colorBitboards = this.colorBitboards.clone();
+            clone.zobristKey = this.zobristKey;
+            clone.indexedBoard = cloneBoard;
             return clone;
         } catch (CloneNotSupportedException e) {
             throw new RuntimeException(e);
@@ -158,12 +308,16 @@ public class ChessBoard implements Cloneable{
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(board, that.board);
+        if (getZobristKey() != that.getZobristKey()) {
+            return false;
+        }
+        // the bitboards hold the same information as the board array
+        return Arrays.equals(pieceBitboards, that.pieceBitboards);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(board);
+        return Long.hashCode(getZobristKey());
     }
     @Override
     public String toString() {
@@ -10,17 +10,30 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
-public class ChessGame {
+public class ChessGame implements Cloneable {
 
     private TeamColor team;
-    private ChessBoard chessBoard = new ChessBoard();
+    private ChessBoard chessBoard;
     private boolean gameEnded;
+    // moves made so far, so copies of the game can tell if they've fallen behind
+    private int moveCount;
+
+    // scratch space for move generation so legality checks don't allocate.
+    // Like the rest of the game it isn't safe to share between threads.
+    private transient MoveList moveBuffer = new MoveList();
 
     public ChessGame() {
+        chessBoard = new ChessBoard();
         chessBoard.resetBoard();
         this.team = TeamColor.WHITE;
     }
 
+    // for decoders that build the board themselves, so no starting position is set up only to be thrown away
+    ChessGame(ChessBoard board, TeamColor team) {
+        this.chessBoard = board;
+        this.team = team;
+    }
+
     /**
      * @return Which team's turn it is
      */
@@ -57,37 +70,59 @@ public class ChessGame {
             return null;
         }
 
+        int from = Bitboard.square(startPosition);
+        KingSafety kingSafety = KingSafety.of(chessBoard, piece.getTeamColor());
+        moveBuffer.clear();
+        piece.behavior().generateMoves(chessBoard, from, moveBuffer);
+
         Collection<ChessMove> validMoves = new ArrayList<>();
-        for (ChessMove move : piece.pieceMoves(chessBoard, startPosition)) {
-            if (safeMove(move, piece.getTeamColor())) {
-                validMoves.add(move);
+        for (int i = 0; i < moveBuffer.size(); i++) {
+            int move = moveBuffer.get(i);
+            if (kingSafety.isLegal(from, PackedMove.to(move))) {
+                validMoves.add(PackedMove.toChessMove(move));
             }
         }
         return validMoves;
     }
 
-    private boolean safeMove(ChessMove move, TeamColor teamColor) {
-        return !moveCausesCheck(teamColor, simulateMove(move));
-    }
-
-    private ChessBoard simulateMove(ChessMove move) {
-        ChessBoard tempBoard = chessBoard.clone();
-        tempBoard.addPiece(move.getEndPosition(), tempBoard.getPiece(move.getStartPosition()));
-        tempBoard.addPiece(move.getStartPosition(), null);
-        return tempBoard;
-    }
+    /**
+     * Writes every legal move for the team whose turn it is into a
+     * caller-owned list, replacing anything already in it
+     *
+     * @param moves the list to fill with moves encoded by {@link PackedMove}
+     */
+    public void legalMoves(MoveList moves) {
+        moves.clear();
+        KingSafety kingSafety = KingSafety.of(chessBoard, team);
+        long pieces = chessBoard.pieces(team);
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            chessBoard.getPiece(from).behavior().generateMoves(chessBoard, from, moves);
+        }
 
-    private boolean moveCausesCheck(TeamColor teamColor, ChessBoard board) {
-        return isPositionThreatened(board.getKing(teamColor), board, teamColor);
+        int legal = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (kingSafety.isLegal(PackedMove.from(move), PackedMove.to(move))) {
+                moves.set(legal++, move);
+            }
+        }
+        moves.truncate(legal);
     }
 
-    private boolean isPositionThreatened(ChessPosition position, ChessBoard board, TeamColor teamColor) {
-        for (ChessPiece piece : board.getAllPieces()) {
-            ChessPosition piecePosition = board.getPosition(piece);
-            if (piece.getTeamColor() != teamColor && piecePosition != null) {
-                if (movesReachPosition(piece.pieceMoves(board, piecePosition), position)) {
-                    return true;
-                }
+    private boolean isValidMove(ChessPiece piece, ChessMove move) {
+        ChessPosition end = move.getEndPosition();
+        if (end == null || !Bitboard.onBoard(end.getRow(), end.getColumn())) {
+            return false;
+        }
+        int requested = PackedMove.encode(move);
+        int from = PackedMove.from(requested);
+        moveBuffer.clear();
+        piece.behavior().generateMoves(chessBoard, from, moveBuffer);
+        for (int i = 0; i < moveBuffer.size(); i++) {
+            if (PackedMove.sameMove(moveBuffer.get(i), requested)) {
+                return KingSafety.of(chessBoard, piece.getTeamColor()).isLegal(from, PackedMove.to(requested));
             }
         }
         return false;
@@ -108,27 +143,13 @@ public class ChessGame {
         if (team != piece.getTeamColor()) {
             throw new InvalidMoveException("Wrong team's turn");
         }
-        if (!validMoves(move.getStartPosition()).contains(move))  {
+        if (!isValidMove(piece, move))  {
             throw new InvalidMoveException("Invalid move");
         }
 
-        if (move.getPromotionPiece() == null) {
-            chessBoard.addPiece(move.getEndPosition(), piece);
-        } else {
-            chessBoard.addPiece(move.getEndPosition(), new ChessPiece(piece.getTeamColor(), move.getPromotionPiece()));
-        }
-
-        chessBoard.addPiece(move.getStartPosition(), null);
-        team = (team == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
-    }
-
-    private boolean movesReachPosition(Collection<ChessMove> moves, ChessPosition position) {
-        for (ChessMove move : moves) {
-            if (move.getEndPosition().equals(position)) {
-                return true;
-            }
-        }
-        return false;
+        chessBoard.makeMove(move);
+        team = opponent(team);
+        moveCount++;
     }
 
     /**
@@ -138,7 +159,8 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        return moveCausesCheck(teamColor, chessBoard);
+        long king = chessBoard.pieces(teamColor, ChessPiece.PieceType.KING);
+        return king != 0 && chessBoard.isSquareAttacked(Long.numberOfTrailingZeros(king), opponent(teamColor));
     }
 
     /**
@@ -148,24 +170,30 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        return isInCheck(teamColor) && hasNoValidEscape(teamColor);
-    }
-
-    private boolean hasNoValidEscape(TeamColor teamColor) {
-        for (ChessPiece piece : chessBoard.getAllPieces()) {
-            ChessPosition piecePosition = chessBoard.getPosition(piece);
-            if (piece.getTeamColor() == teamColor && piecePosition != null) {
-                Collection<ChessMove> moves = validMoves(piecePosition);
-                for (ChessMove move : moves) {
-                    if (safeMove(move, teamColor)) {
-                        return false;
-                    }
+        KingSafety kingSafety = KingSafety.of(chessBoard, teamColor);
+        return kingSafety.inCheck() && hasNoValidEscape(teamColor, kingSafety);
+    }
+
+    private boolean hasNoValidEscape(TeamColor teamColor, KingSafety kingSafety) {
+        long pieces = chessBoard.pieces(teamColor);
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            moveBuffer.clear();
+            chessBoard.getPiece(from).behavior().generateMoves(chessBoard, from, moveBuffer);
+            for (int i = 0; i < moveBuffer.size(); i++) {
+                if (kingSafety.isLegal(from, PackedMove.to(moveBuffer.get(i)))) {
+                    return false;
                 }
             }
         }
         return true;
     }
 
+    private static TeamColor opponent(TeamColor teamColor) {
+        return (teamColor == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+    }
+
     /**
      * Determines if the given team is in stalemate, which here is defined as having
      * no valid moves
@@ -174,7 +202,8 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        return !isInCheck(teamColor) && hasNoValidEscape(teamColor);
+        KingSafety kingSafety = KingSafety.of(chessBoard, teamColor);
+        return !kingSafety.inCheck() && hasNoValidEscape(teamColor, kingSafety);
     }
 
     /**
@@ -195,6 +224,17 @@ public class ChessGame {
         return chessBoard;
     }
 
+    /**
+     * @return how many moves have been made with {@link #makeMove}
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    void setMoveCount(int moveCount) {
+        this.moveCount = moveCount;
+    }
+
     public boolean isGameEnded () {
         return gameEnded;
     }
@@ -202,6 +242,34 @@ public class ChessGame {
         this.gameEnded = gameEnded;
     }
 
+    /**
+     * Gets the Zobrist hash of the position: the board's key with the side to
+     * move mixed in, so the same placement with a different team to play
+     * hashes differently.
+     *
+     * @return the 64-bit key of the current position
+     */
+    public long getZobristKey() {
+        long key = chessBoard.getZobristKey();
+        return (team == TeamColor.BLACK) ? key ^ Zobrist.blackToMove() : key;
+    }
+
+    /**
+     * @return a copy of this game that can be changed without affecting
+     * the original
+     */
+    @Override
+    public ChessGame clone() {
+        try {
+            ChessGame clone = (ChessGame) super.clone();
+            clone.chessBoard = chessBoard.clone();
+            clone.moveBuffer = new MoveList();
+            return clone;
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) {
@@ -213,6 +281,6 @@ public class ChessGame {
 
     @Override
     public int hashCode() {
-        return Objects.hash(team, chessBoard);
+        return Long.hashCode(getZobristKey());
     }
 }
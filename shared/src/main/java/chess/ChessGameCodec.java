@@ -0,0 +1,80 @@
+package chess;
+
+/**
+ * Packs a game into a few dozen bytes for storage, as a smaller and cheaper
+ * alternative to Gson's JSON.
+ * <p>
+ * The layout is a format version byte, a flags byte (black to move, game
+ * ended), the move count as a big-endian int and then the 64 squares at four
+ * bits each, two squares to a byte in square order. A square's nibble is 0
+ * when it's empty and otherwise one more than the piece's bitboard index.
+ */
+public final class ChessGameCodec {
+    private static final byte VERSION = 1;
+    private static final int BLACK_TO_MOVE = 1;
+    private static final int ENDED = 1 << 1;
+    private static final int HEADER_BYTES = 6;
+    public static final int ENCODED_LENGTH = HEADER_BYTES + Bitboard.SQUARES / 2;
+
+    private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private ChessGameCodec() {}
+
+    public static byte[] encode(ChessGame game) {
+        byte[] bytes = new byte[ENCODED_LENGTH];
+        bytes[0] = VERSION;
+        int flags = 0;
+        if (game.getTeamTurn() == ChessGame.TeamColor.BLACK) {
+            flags |= BLACK_TO_MOVE;
+        }
+        if (game.isGameEnded()) {
+            flags |= ENDED;
+        }
+        bytes[1] = (byte) flags;
+        int moveCount = game.getMoveCount();
+        bytes[2] = (byte) (moveCount >>> 24);
+        bytes[3] = (byte) (moveCount >>> 16);
+        bytes[4] = (byte) (moveCount >>> 8);
+        bytes[5] = (byte) moveCount;
+
+        ChessBoard board = game.getBoard();
+        for (int square = 0; square < Bitboard.SQUARES; square++) {
+            ChessPiece piece = board.getPiece(ChessPosition.of(square));
+            if (piece != null) {
+                int nibble = Bitboard.pieceIndex(piece.getTeamColor(), piece.getPieceType()) + 1;
+                bytes[HEADER_BYTES + square / 2] |= (byte) (nibble << ((square & 1) * 4));
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes weren't written by {@link #encode}
+     */
+    public static ChessGame decode(byte[] bytes) {
+        if (bytes == null || bytes.length != ENCODED_LENGTH || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Not an encoded chess game");
+        }
+        ChessBoard board = new ChessBoard();
+        for (int square = 0; square < Bitboard.SQUARES; square++) {
+            int nibble = (bytes[HEADER_BYTES + square / 2] >>> ((square & 1) * 4)) & 0xF;
+            if (nibble == 0) {
+                continue;
+            }
+            if (nibble > Bitboard.PIECE_KINDS) {
+                throw new IllegalArgumentException("Unknown piece " + nibble + " on square " + square);
+            }
+            int index = nibble - 1;
+            board.addPiece(ChessPosition.of(square), new ChessPiece(COLORS[index / 6], TYPES[index % 6]));
+        }
+
+        int flags = bytes[1];
+        ChessGame game = new ChessGame(board,
+                (flags & BLACK_TO_MOVE) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        game.setGameEnded((flags & ENDED) != 0);
+        game.setMoveCount(((bytes[2] & 0xFF) << 24) | ((bytes[3] & 0xFF) << 16)
+                | ((bytes[4] & 0xFF) << 8) | (bytes[5] & 0xFF));
+        return game;
+    }
+}
@@ -1,7 +1,13 @@
 package chess;
 
 import chess.ChessPiece.PieceType;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
+import java.io.IOException;
 import java.util.Objects;
 
 /**
@@ -10,7 +16,11 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessMove.GsonAdapter.class)
 public class ChessMove {
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    // filled in lazily, indexed the same way PackedMove lays out start, end and promotion
+    private static final ChessMove[] MOVES = new ChessMove[1 << 15];
 
     private final ChessPosition startPosition;
     private final ChessPosition endPosition;
@@ -24,6 +34,40 @@ public class ChessMove {
 
     }
 
+    /**
+     * Returns the shared instance for a move between two squares on the board.
+     * Moves are immutable, so every caller asking for the same move can get
+     * the same object, and comparing two of them is usually just an identity
+     * check.
+     *
+     * @return the canonical move, or a new one if either position is off the board
+     */
+    public static ChessMove of(ChessPosition startPosition, ChessPosition endPosition,
+                               ChessPiece.PieceType promotionPiece) {
+        if (startPosition == null || endPosition == null
+                || !Bitboard.onBoard(startPosition.getRow(), startPosition.getColumn())
+                || !Bitboard.onBoard(endPosition.getRow(), endPosition.getColumn())) {
+            return new ChessMove(startPosition, endPosition, promotionPiece);
+        }
+        return of(PackedMove.encode(Bitboard.square(startPosition), Bitboard.square(endPosition),
+                promotionPiece, 0));
+    }
+
+    /**
+     * @return the canonical move for a {@link PackedMove}, ignoring its flags
+     */
+    static ChessMove of(int packedMove) {
+        int index = packedMove & (MOVES.length - 1);
+        ChessMove move = MOVES[index];
+        if (move == null) {
+            // racing threads may each build one, which is harmless since they're equal
+            move = new ChessMove(ChessPosition.of(PackedMove.from(index)),
+                    ChessPosition.of(PackedMove.to(index)), PackedMove.promotion(index));
+            MOVES[index] = move;
+        }
+        return move;
+    }
+
     /**
      * @return ChessPosition of starting location
      */
@@ -65,6 +109,9 @@ public class ChessMove {
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
@@ -78,4 +125,66 @@ public class ChessMove {
     public int hashCode() {
         return Objects.hash(startPosition, endPosition, promotionPiece);
     }
+
+    /**
+     * Keeps the JSON shape Gson would produce by reflection but hands back
+     * the shared instance when reading.
+     */
+    static class GsonAdapter extends TypeAdapter<ChessMove> {
+        private final TypeAdapter<ChessPosition> positions = new ChessPosition.GsonAdapter();
+
+        @Override
+        public void write(JsonWriter out, ChessMove move) throws IOException {
+            if (move == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("startPosition");
+            positions.write(out, move.startPosition);
+            out.name("endPosition");
+            positions.write(out, move.endPosition);
+            if (move.promotionPiece != null) {
+                out.name("promotionPiece").value(move.promotionPiece.name());
+            }
+            out.endObject();
+        }
+
+        @Override
+        public ChessMove read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            ChessPosition start = null;
+            ChessPosition end = null;
+            PieceType promotion = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "startPosition" -> start = positions.read(in);
+                    case "endPosition" -> end = positions.read(in);
+                    case "promotionPiece" -> promotion = readPieceType(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return of(start, end, promotion);
+        }
+
+        private static PieceType readPieceType(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            String name = in.nextString();
+            for (PieceType type : PIECE_TYPES) {
+                if (type.name().equals(name)) {
+                    return type;
+                }
+            }
+            // Gson's enum adapter also reads unknown constants as null
+            return null;
+        }
+    }
 }
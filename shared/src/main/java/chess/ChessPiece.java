@@ -10,6 +10,14 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessPiece implements Cloneable {
+    // behaviors are stateless, so every piece shares one of each
+    private static final PieceBehavior KING_MOVES = new KingBehavior();
+    private static final PieceBehavior QUEEN_MOVES = new QueenBehavior();
+    private static final PieceBehavior BISHOP_MOVES = new BishopBehavior();
+    private static final PieceBehavior KNIGHT_MOVES = new KnightBehavior();
+    private static final PieceBehavior ROOK_MOVES = new RookBehavior();
+    private static final PieceBehavior PAWN_MOVES = new PawnBehavior();
+
     private final ChessGame.TeamColor pieceColor;
     private final ChessPiece.PieceType type;
 
@@ -74,16 +82,18 @@ public class ChessPiece implements Cloneable {
      * @return Collection of valid moves
      */
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
+        return behavior().pieceMoves(board, myPosition);
+    }
 
-        PieceBehavior moves = switch(getPieceType()) {
-            case KING -> new KingBehavior();
-            case QUEEN -> new QueenBehavior();
-            case BISHOP -> new BishopBehavior();
-            case KNIGHT -> new KnightBehavior();
-            case ROOK -> new RookBehavior();
-            case PAWN -> new PawnBehavior();
+    PieceBehavior behavior() {
+        return switch(getPieceType()) {
+            case KING -> KING_MOVES;
+            case QUEEN -> QUEEN_MOVES;
+            case BISHOP -> BISHOP_MOVES;
+            case KNIGHT -> KNIGHT_MOVES;
+            case ROOK -> ROOK_MOVES;
+            case PAWN -> PAWN_MOVES;
         };
-        return moves.pieceMoves(board, myPosition);
     }
 
 }
@@ -1,6 +1,12 @@
 package chess;
 
-import java.util.Objects;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
 
 /**
  * Represents a single square position on a chess board
@@ -8,7 +14,17 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessPosition.GsonAdapter.class)
 public class ChessPosition {
+    // one shared instance per square, indexed by Bitboard.square
+    private static final ChessPosition[] POSITIONS = new ChessPosition[Bitboard.SQUARES];
+
+    static {
+        for (int square = 0; square < Bitboard.SQUARES; square++) {
+            POSITIONS[square] = new ChessPosition(Bitboard.row(square), Bitboard.column(square));
+        }
+    }
+
     private final int row;
     private final int col;
 
@@ -17,6 +33,23 @@ public class ChessPosition {
         this.col = col;
     }
 
+    /**
+     * Returns the shared instance for a square on the board, so callers don't
+     * allocate a new position every time they need one.
+     *
+     * @return the canonical position, or a new one if it's off the board
+     */
+    public static ChessPosition of(int row, int col) {
+        if (!Bitboard.onBoard(row, col)) {
+            return new ChessPosition(row, col);
+        }
+        return POSITIONS[Bitboard.square(row, col)];
+    }
+
+    static ChessPosition of(int square) {
+        return POSITIONS[square];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
@@ -36,6 +69,9 @@ public class ChessPosition {
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
@@ -45,11 +81,50 @@ public class ChessPosition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, col);
+        // same value as Objects.hash(row, col) without boxing
+        return 31 * (31 + row) + col;
     }
 
     @Override
     public String toString() {
         return "r:" + this.row + " c:" + this.col;
     }
+
+    /**
+     * Keeps the {"row":1,"col":1} JSON shape but hands back the shared
+     * instance when reading.
+     */
+    static class GsonAdapter extends TypeAdapter<ChessPosition> {
+        @Override
+        public void write(JsonWriter out, ChessPosition position) throws IOException {
+            if (position == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("row").value(position.row);
+            out.name("col").value(position.col);
+            out.endObject();
+        }
+
+        @Override
+        public ChessPosition read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            int row = 0;
+            int col = 0;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "row" -> row = in.nextInt();
+                    case "col" -> col = in.nextInt();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return of(row, col);
+        }
+    }
 }
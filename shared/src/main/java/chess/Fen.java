@@ -0,0 +1,196 @@
+package chess;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation, e.g.
+ * {@code rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b - - 0 1}.
+ * <p>
+ * The engine doesn't support castling or en passant, so those fields are
+ * always written as "-" and ignored when read, as is the halfmove clock. The
+ * fullmove number is kept in step with {@link ChessGame#getMoveCount()}.
+ */
+public final class Fen {
+    public static final String STARTING_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1";
+
+    private Fen() {}
+
+    public static String write(ChessGame game) {
+        StringBuilder fen = new StringBuilder(90);
+        appendBoard(fen, game.getBoard());
+        fen.append(game.getTeamTurn() == ChessGame.TeamColor.BLACK ? " b" : " w");
+        fen.append(" - - 0 ").append(game.getMoveCount() / 2 + 1);
+        return fen.toString();
+    }
+
+    /**
+     * @return just the piece placement field for the board
+     */
+    public static String writeBoard(ChessBoard board) {
+        StringBuilder fen = new StringBuilder(72);
+        appendBoard(fen, board);
+        return fen.toString();
+    }
+
+    /**
+     * Reads a position. Everything after the side to move is optional.
+     *
+     * @throws IllegalArgumentException if the text isn't a valid position
+     */
+    public static ChessGame read(String fen) {
+        String text = fen.strip();
+        int placementEnd = fieldEnd(text, 0);
+        ChessBoard board = readBoard(text.substring(0, placementEnd));
+
+        int sideStart = nextField(text, placementEnd);
+        int sideEnd = fieldEnd(text, sideStart);
+        if (sideEnd - sideStart != 1) {
+            throw new IllegalArgumentException("Missing side to move in FEN: " + fen);
+        }
+        ChessGame.TeamColor team = switch (text.charAt(sideStart)) {
+            case 'w' -> ChessGame.TeamColor.WHITE;
+            case 'b' -> ChessGame.TeamColor.BLACK;
+            default -> throw new IllegalArgumentException("Bad side to move in FEN: " + fen);
+        };
+
+        // castling, en passant and the halfmove clock don't apply to this engine
+        int fieldStart = sideEnd;
+        for (int skipped = 0; skipped < 3 && fieldStart < text.length(); skipped++) {
+            fieldStart = fieldEnd(text, nextField(text, fieldStart));
+        }
+        int fullMove = 1;
+        if (fieldStart < text.length()) {
+            int fullMoveStart = nextField(text, fieldStart);
+            fullMove = parseCount(text, fullMoveStart, fieldEnd(text, fullMoveStart));
+        }
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(team);
+        game.setMoveCount(Math.max(0, (fullMove - 1) * 2) + (team == ChessGame.TeamColor.BLACK ? 1 : 0));
+        return game;
+    }
+
+    /**
+     * Reads just the piece placement field.
+     *
+     * @throws IllegalArgumentException if the text isn't a full board
+     */
+    public static ChessBoard readBoard(String placement) {
+        ChessBoard board = new ChessBoard();
+        int row = 8;
+        int col = 1;
+        for (int i = 0; i < placement.length(); i++) {
+            char c = placement.charAt(i);
+            if (c == '/') {
+                if (col != 9 || row == 1) {
+                    throw new IllegalArgumentException("Bad rank in FEN: " + placement);
+                }
+                row--;
+                col = 1;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+            } else {
+                ChessPiece.PieceType type = pieceType(Character.toUpperCase(c));
+                if (type == null || col > 8) {
+                    throw new IllegalArgumentException("Bad piece placement in FEN: " + placement);
+                }
+                ChessGame.TeamColor color = Character.isUpperCase(c) ? ChessGame.TeamColor.WHITE
+                        : ChessGame.TeamColor.BLACK;
+                board.addPiece(ChessPosition.of(row, col), new ChessPiece(color, type));
+                col++;
+            }
+            if (col > 9) {
+                throw new IllegalArgumentException("Rank too long in FEN: " + placement);
+            }
+        }
+        if (row != 1 || col != 9) {
+            throw new IllegalArgumentException("Incomplete board in FEN: " + placement);
+        }
+        return board;
+    }
+
+    /**
+     * @return the upper case letter for the piece type, as used by FEN for
+     * white pieces and by SAN
+     */
+    static char pieceLetter(ChessPiece.PieceType type) {
+        return switch (type) {
+            case KING -> 'K';
+            case QUEEN -> 'Q';
+            case BISHOP -> 'B';
+            case KNIGHT -> 'N';
+            case ROOK -> 'R';
+            case PAWN -> 'P';
+        };
+    }
+
+    /**
+     * @return the piece type for an upper case letter, or null if it isn't one
+     */
+    static ChessPiece.PieceType pieceType(char letter) {
+        return switch (letter) {
+            case 'K' -> ChessPiece.PieceType.KING;
+            case 'Q' -> ChessPiece.PieceType.QUEEN;
+            case 'B' -> ChessPiece.PieceType.BISHOP;
+            case 'N' -> ChessPiece.PieceType.KNIGHT;
+            case 'R' -> ChessPiece.PieceType.ROOK;
+            case 'P' -> ChessPiece.PieceType.PAWN;
+            default -> null;
+        };
+    }
+
+    private static void appendBoard(StringBuilder fen, ChessBoard board) {
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(ChessPosition.of(row, col));
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                char letter = pieceLetter(piece.getPieceType());
+                fen.append(piece.getTeamColor() == ChessGame.TeamColor.WHITE ? letter : Character.toLowerCase(letter));
+            }
+            if (empty > 0) {
+                fen.append((char) ('0' + empty));
+            }
+            if (row > 1) {
+                fen.append('/');
+            }
+        }
+    }
+
+    private static int fieldEnd(String text, int start) {
+        int end = start;
+        while (end < text.length() && !Character.isWhitespace(text.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    private static int nextField(String text, int end) {
+        int start = end;
+        while (start < text.length() && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int parseCount(String text, int start, int end) {
+        if (start == end || end - start > 6) {
+            throw new IllegalArgumentException("Bad move number in FEN: " + text);
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Bad move number in FEN: " + text);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
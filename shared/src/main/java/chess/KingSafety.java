@@ -0,0 +1,110 @@
+package chess;
+
+/**
+ * The check and pin state of one team's king, computed once per position so
+ * that every pseudo-legal move can be checked for legality without playing it
+ * out on a copy of the board.
+ * <p>
+ * A non-king move is legal when it lands inside the check mask (anywhere when
+ * not in check, on the checker or between it and the king when in single
+ * check, nowhere when in double check) and, if the moving piece is pinned,
+ * stays on the line between its king and the pinning piece. A king move is
+ * legal when its destination isn't attacked once the king has left its
+ * current square.
+ */
+final class KingSafety {
+    private final ChessBoard board;
+    private final ChessGame.TeamColor enemy;
+    private final int kingSquare;
+    private final long checkers;
+    private final long checkMask;
+    private final long pinned;
+
+    private KingSafety(ChessBoard board, ChessGame.TeamColor enemy, int kingSquare,
+                       long checkers, long checkMask, long pinned) {
+        this.board = board;
+        this.enemy = enemy;
+        this.kingSquare = kingSquare;
+        this.checkers = checkers;
+        this.checkMask = checkMask;
+        this.pinned = pinned;
+    }
+
+    static KingSafety of(ChessBoard board, ChessGame.TeamColor teamColor) {
+        ChessGame.TeamColor enemy = (teamColor == ChessGame.TeamColor.WHITE)
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        long king = board.pieces(teamColor, ChessPiece.PieceType.KING);
+        if (king == 0) {
+            // without a king nothing can be left in check
+            return new KingSafety(board, enemy, -1, 0, ~0L, 0);
+        }
+
+        int kingSquare = Long.numberOfTrailingZeros(king);
+        long occupied = board.occupied();
+        long checkers = board.attackersOf(kingSquare, enemy, occupied);
+
+        long checkMask;
+        if (checkers == 0) {
+            checkMask = ~0L;
+        } else if (Long.bitCount(checkers) == 1) {
+            checkMask = checkers | AttackTables.between(kingSquare, Long.numberOfTrailingZeros(checkers));
+        } else {
+            // double check, only the king can move
+            checkMask = 0;
+        }
+
+        return new KingSafety(board, enemy, kingSquare, checkers, checkMask,
+                pinnedPieces(board, teamColor, enemy, kingSquare, occupied));
+    }
+
+    /**
+     * Finds pieces that are the only thing standing between their king and an
+     * enemy slider looking down the same line.
+     */
+    private static long pinnedPieces(ChessBoard board, ChessGame.TeamColor teamColor,
+                                     ChessGame.TeamColor enemy, int kingSquare, long occupied) {
+        long enemies = board.pieces(enemy);
+        long queens = board.pieces(enemy, ChessPiece.PieceType.QUEEN);
+        // look through our own pieces by only letting enemy pieces block
+        long snipers = (AttackTables.rookAttacks(kingSquare, enemies)
+                & (board.pieces(enemy, ChessPiece.PieceType.ROOK) | queens))
+                | (AttackTables.bishopAttacks(kingSquare, enemies)
+                & (board.pieces(enemy, ChessPiece.PieceType.BISHOP) | queens));
+
+        long own = board.pieces(teamColor);
+        long pinned = 0;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = AttackTables.between(kingSquare, sniper) & occupied;
+            if (Long.bitCount(blockers) == 1 && (blockers & own) != 0) {
+                pinned |= blockers;
+            }
+        }
+        return pinned;
+    }
+
+    boolean inCheck() {
+        return checkers != 0;
+    }
+
+    /**
+     * @param from the square of the piece being moved
+     * @param to   the square it moves to
+     * @return true if the move doesn't leave the king in check
+     */
+    boolean isLegal(int from, int to) {
+        if (kingSquare < 0) {
+            return true;
+        }
+        if (from == kingSquare) {
+            long occupiedWithoutKing = board.occupied() & ~Bitboard.bit(kingSquare);
+            return board.attackersOf(to, enemy, occupiedWithoutKing) == 0;
+        }
+        long target = Bitboard.bit(to);
+        if ((target & checkMask) == 0) {
+            return false;
+        }
+        return (pinned & Bitboard.bit(from)) == 0 || (target & AttackTables.line(kingSquare, from)) != 0;
+    }
+}
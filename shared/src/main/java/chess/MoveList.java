@@ -0,0 +1,80 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A reusable buffer of moves encoded with {@link PackedMove}. Clearing and
+ * refilling the same list keeps move generation from allocating.
+ */
+public final class MoveList {
+    // no legal chess position has more than 218 moves
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    /**
+     * Adds a move from one square to every square set in targets, flagging
+     * the ones that land on an occupied square as captures
+     */
+    void addTargets(int from, long targets, long occupied) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            int flags = ((occupied >>> to) & 1L) != 0 ? PackedMove.CAPTURE : 0;
+            add(PackedMove.encode(from, to, null, flags));
+        }
+    }
+
+    void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    /**
+     * Drops every move past the first size moves
+     */
+    void truncate(int size) {
+        this.size = size;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public Collection<ChessMove> toChessMoves() {
+        Collection<ChessMove> chessMoves = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            chessMoves.add(PackedMove.toChessMove(moves[i]));
+        }
+        return chessMoves;
+    }
+}
@@ -0,0 +1,10 @@
+package chess;
+
+/**
+ * Everything needed to take back a move made with {@link ChessBoard#makeMove}
+ *
+ * @param move     the move that was made
+ * @param moved    the piece that stood on the start position
+ * @param captured the piece that stood on the end position, or null
+ */
+public record MoveUndo(ChessMove move, ChessPiece moved, ChessPiece captured) {}
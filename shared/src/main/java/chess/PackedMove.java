@@ -0,0 +1,61 @@
+package chess;
+
+/**
+ * Encodes a move into a single int so move generation can write moves into a
+ * {@link MoveList} without allocating {@link ChessMove} objects.
+ * <p>
+ * Bits 0-5 hold the start square and bits 6-11 the end square (numbered 0 - 63
+ * from a1 to h8), bits 12-14 hold the promotion piece (0 for none, otherwise
+ * the {@link ChessPiece.PieceType} ordinal + 1) and bit 15 flags a capture.
+ */
+public final class PackedMove {
+    public static final int CAPTURE = 1 << 15;
+
+    // start, end and promotion, i.e. everything ChessMove.equals compares
+    private static final int MOVE_MASK = (1 << 15) - 1;
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+    private PackedMove() {}
+
+    public static int encode(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        int promotionBits = (promotion == null) ? 0 : promotion.ordinal() + 1;
+        return from | (to << 6) | (promotionBits << 12) | flags;
+    }
+
+    public static int encode(ChessMove move) {
+        return encode(Bitboard.square(move.getStartPosition()), Bitboard.square(move.getEndPosition()),
+                move.getPromotionPiece(), 0);
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    /**
+     * @return the piece this move promotes to, or null if it isn't a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int promotionBits = (move >>> 12) & 0x7;
+        return (promotionBits == 0) ? null : PIECE_TYPES[promotionBits - 1];
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    /**
+     * @return true if both encode the same start, end and promotion,
+     * ignoring flags
+     */
+    public static boolean sameMove(int move, int other) {
+        return (move & MOVE_MASK) == (other & MOVE_MASK);
+    }
+
+    public static ChessMove toChessMove(int move) {
+        return ChessMove.of(move);
+    }
+}
@@ -1,84 +1,56 @@
 package chess;
 
-import java.util.ArrayList;
-import java.util.Collection;
-
 public class PawnBehavior implements PieceBehavior {
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+            ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.KNIGHT,
+            ChessPiece.PieceType.ROOK
+    };
+
     @Override
-    public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> pawnMoves = new ArrayList<>();
-        ChessGame.TeamColor color = board.getPiece(myPosition).getTeamColor();
+    public void generateMoves(ChessBoard board, int square, MoveList moves) {
+        ChessGame.TeamColor color = board.getPiece(square).getTeamColor();
+        ChessGame.TeamColor enemy = (color == ChessGame.TeamColor.WHITE) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
         int direction = (color == ChessGame.TeamColor.WHITE) ? 1 : -1;
         int startRow = (color == ChessGame.TeamColor.WHITE) ? 2 : 7;
 
-        if (myPosition.getRow() == startRow) {
-            moveTwo(board, myPosition, direction, pawnMoves);
-        } else {
-            moveOne(board, myPosition, direction, pawnMoves);
-        }
-
-        addDiagonalCaptures(board, myPosition, direction, pawnMoves, color);
-        return pawnMoves;
-    }
+        long occupied = board.occupied();
+        long pushes = pushTargets(occupied, square, direction, startRow);
+        long captures = AttackTables.pawnAttacks(color, square) & board.pieces(enemy);
 
-    private void moveOne(ChessBoard board, ChessPosition myPosition, int direction, Collection<ChessMove> pawnMoves) {
-        addMoveIfValid(board, myPosition, myPosition.getRow() + direction, myPosition.getColumn(), pawnMoves);
+        addPawnMoves(square, pushes, 0, moves);
+        addPawnMoves(square, captures, PackedMove.CAPTURE, moves);
     }
 
-    private void moveTwo(ChessBoard board, ChessPosition myPosition, int direction, Collection<ChessMove> pawnMoves) {
-        int row = myPosition.getRow() + direction;
-        if (addMoveIfValid(board, myPosition, row, myPosition.getColumn(), pawnMoves)) {
-            addMoveIfValid(board, myPosition, row + direction, myPosition.getColumn(), pawnMoves);
+    private long pushTargets(long occupied, int square, int direction, int startRow) {
+        int row = Bitboard.row(square) + direction;
+        if (row < 1 || row > 8) {
+            return 0;
+        }
+        long oneStep = Bitboard.bit(square + 8 * direction) & ~occupied;
+        if (oneStep == 0 || Bitboard.row(square) != startRow) {
+            return oneStep;
         }
+        long twoStep = Bitboard.bit(square + 16 * direction) & ~occupied;
+        return oneStep | twoStep;
     }
 
-    private void addDiagonalCaptures(ChessBoard board, ChessPosition myPosition,
-                                     int direction, Collection<ChessMove> pawnMoves,
-                                     ChessGame.TeamColor color) {
-        int[][] diagonals = {{direction, 1}, {direction, -1}};
-        for (int[] diagonal : diagonals) {
-            int row = myPosition.getRow() + diagonal[0];
-            int col = myPosition.getColumn() + diagonal[1];
-            ChessPosition nextPosition = new ChessPosition(row, col);
-            if (inBounds(row, col)) {
-                ChessPiece piece = board.getPiece(nextPosition);
-                if (piece != null && piece.getTeamColor() != color) {
-                    addPawnMove(myPosition, nextPosition, pawnMoves);
+    private void addPawnMoves(int from, long targets, int flags, MoveList moves) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (endOfBoard(Bitboard.row(to))) {
+                for (ChessPiece.PieceType promotion : PROMOTIONS) {
+                    moves.add(PackedMove.encode(from, to, promotion, flags));
                 }
+            } else {
+                moves.add(PackedMove.encode(from, to, null, flags));
             }
         }
     }
 
-    private boolean addMoveIfValid(ChessBoard board, ChessPosition myPosition,
-                                   int row, int col, Collection<ChessMove> pawnMoves) {
-        if (!inBounds(row, col)) {
-            return false;
-        }
-        ChessPosition nextPosition = new ChessPosition(row, col);
-        if (board.getPiece(nextPosition) == null) {
-            addPawnMove(myPosition, nextPosition, pawnMoves);
-            return true;
-        }
-        return false;
-    }
-
-    private void addPawnMove(ChessPosition start, ChessPosition end, Collection<ChessMove> moves) {
-        if (endOfBoard(end.getRow())) {
-            moves.add(new ChessMove(start, end, ChessPiece.PieceType.QUEEN));
-            moves.add(new ChessMove(start, end, ChessPiece.PieceType.BISHOP));
-            moves.add(new ChessMove(start, end, ChessPiece.PieceType.KNIGHT));
-            moves.add(new ChessMove(start, end, ChessPiece.PieceType.ROOK));
-        } else {
-            moves.add(new ChessMove(start, end, null));
-        }
-    }
-
     private boolean endOfBoard(int row) {
         return row == 8 || row == 1;
     }
-
-    private boolean inBounds(int row, int col) {
-        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
-    }
 }
-
@@ -0,0 +1,112 @@
+package chess;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth ("perft").
+ * The counts for well known positions are published, so comparing against
+ * them checks the move generator, and timing them measures it.
+ * <p>
+ * The game is played forward and taken back in place, so it's left exactly
+ * as it was when a count returns.
+ */
+public final class Perft {
+
+    private Perft() {}
+
+    /**
+     * @param game  the position to count from, with the side to move set
+     * @param depth how many plies to look ahead
+     * @return the number of positions reachable in exactly depth plies
+     */
+    public static long perft(ChessGame game, int depth) {
+        if (depth <= 0) {
+            return 1;
+        }
+        return count(game, depth, newLists(depth));
+    }
+
+    /**
+     * Splits the perft count by the first move, which is how a wrong total is
+     * narrowed down to the move whose subtree disagrees.
+     *
+     * @return the node count below each legal move, in generation order
+     */
+    public static Map<ChessMove, Long> divide(ChessGame game, int depth) {
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        if (depth <= 0) {
+            return counts;
+        }
+        MoveList[] lists = newLists(depth);
+        MoveList moves = lists[depth - 1];
+        game.legalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            ChessMove move = PackedMove.toChessMove(moves.get(i));
+            MoveUndo undo = play(game, move);
+            counts.put(move, (depth == 1) ? 1 : count(game, depth - 1, lists));
+            takeBack(game, undo);
+        }
+        return counts;
+    }
+
+    private static long count(ChessGame game, int depth, MoveList[] lists) {
+        MoveList moves = lists[depth - 1];
+        game.legalMoves(moves);
+        if (depth == 1) {
+            // every legal move is a leaf, no need to play them
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            MoveUndo undo = play(game, PackedMove.toChessMove(moves.get(i)));
+            nodes += count(game, depth - 1, lists);
+            takeBack(game, undo);
+        }
+        return nodes;
+    }
+
+    private static MoveUndo play(ChessGame game, ChessMove move) {
+        MoveUndo undo = game.getBoard().makeMove(move);
+        game.setTeamTurn(opponent(game.getTeamTurn()));
+        return undo;
+    }
+
+    private static void takeBack(ChessGame game, MoveUndo undo) {
+        game.getBoard().unmakeMove(undo);
+        game.setTeamTurn(opponent(game.getTeamTurn()));
+    }
+
+    // one list per ply so a parent's moves survive its children's generation
+    private static MoveList[] newLists(int depth) {
+        MoveList[] lists = new MoveList[depth];
+        for (int i = 0; i < depth; i++) {
+            lists[i] = new MoveList();
+        }
+        return lists;
+    }
+
+    private static ChessGame.TeamColor opponent(ChessGame.TeamColor teamColor) {
+        return (teamColor == ChessGame.TeamColor.WHITE) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+
+    /**
+     * Prints the divide output and total for the starting position.
+     * Usage: {@code Perft <depth>}
+     */
+    public static void main(String[] args) {
+        int depth = (args.length > 0) ? Integer.parseInt(args[0]) : 4;
+        ChessGame game = new ChessGame();
+
+        long start = System.nanoTime();
+        long total = 0;
+        for (Map.Entry<ChessMove, Long> entry : divide(game, depth).entrySet()) {
+            System.out.println(entry.getKey() + ": " + entry.getValue());
+            total += entry.getValue();
+        }
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        System.out.println();
+        System.out.println("Nodes: " + total);
+        System.out.println("Time: " + elapsedMillis + " ms (" + (total * 1000 / elapsedMillis) + " nodes/s)");
+    }
+}
@@ -0,0 +1,288 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes games in Portable Game Notation: a block of
+ * {@code [Name "value"]} tags followed by the moves in SAN.
+ * <p>
+ * Comments, variations and numeric annotations are skipped when reading. A
+ * game that doesn't start from the usual position carries it in a FEN tag,
+ * which is written automatically when needed.
+ */
+public final class Pgn {
+    private static final int LINE_LENGTH = 80;
+
+    private Pgn() {}
+
+    /**
+     * A game read from PGN.
+     *
+     * @param tags  the tags in the order they were read
+     * @param start the position before the first move
+     * @param moves the moves played, in order
+     * @param end   the position after the last move
+     */
+    public record Game(Map<String, String> tags, ChessGame start, List<ChessMove> moves, ChessGame end) {}
+
+    /**
+     * @param tags  tags to write first, in iteration order; Result is filled
+     *              in from the final position if it's missing
+     * @param start the position before the first move; it's left unchanged
+     * @param moves the moves to write
+     * @throws IllegalArgumentException if a move isn't legal where it's played
+     */
+    public static String write(Map<String, String> tags, ChessGame start, List<ChessMove> moves) {
+        ChessGame game = start.clone();
+        StringBuilder movetext = new StringBuilder(moves.size() * 7);
+        int lineStart = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            ChessMove move = moves.get(i);
+            String san = San.write(game, move);
+            String token;
+            if (game.getTeamTurn() == ChessGame.TeamColor.WHITE) {
+                token = (game.getMoveCount() / 2 + 1) + ". " + san;
+            } else if (i == 0) {
+                token = (game.getMoveCount() / 2 + 1) + "... " + san;
+            } else {
+                token = san;
+            }
+            lineStart = appendWrapped(movetext, lineStart, token);
+            try {
+                game.makeMove(move);
+            } catch (InvalidMoveException e) {
+                throw new IllegalArgumentException("Not a legal move: " + move, e);
+            }
+        }
+
+        Map<String, String> allTags = new LinkedHashMap<>(tags);
+        String startFen = Fen.write(start);
+        if (!startFen.equals(Fen.STARTING_POSITION)) {
+            allTags.putIfAbsent("SetUp", "1");
+            allTags.putIfAbsent("FEN", startFen);
+        }
+        String result = allTags.computeIfAbsent("Result", name -> resultOf(game));
+        appendWrapped(movetext, lineStart, result);
+
+        StringBuilder pgn = new StringBuilder(movetext.length() + allTags.size() * 24);
+        for (Map.Entry<String, String> tag : allTags.entrySet()) {
+            pgn.append('[').append(tag.getKey()).append(" \"");
+            appendEscaped(pgn, tag.getValue());
+            pgn.append("\"]\n");
+        }
+        pgn.append('\n').append(movetext).append('\n');
+        return pgn.toString();
+    }
+
+    /**
+     * @return the first game in the text
+     * @throws IllegalArgumentException if there's no game or it can't be read
+     */
+    public static Game read(String pgn) {
+        Game game = new Parser(pgn).next();
+        if (game == null) {
+            throw new IllegalArgumentException("No game in PGN");
+        }
+        return game;
+    }
+
+    /**
+     * @return every game in the text, e.g. a database export
+     * @throws IllegalArgumentException if any game can't be read
+     */
+    public static List<Game> readAll(String pgn) {
+        Parser parser = new Parser(pgn);
+        List<Game> games = new ArrayList<>();
+        for (Game game = parser.next(); game != null; game = parser.next()) {
+            games.add(game);
+        }
+        return games;
+    }
+
+    private static String resultOf(ChessGame game) {
+        ChessGame.TeamColor toMove = game.getTeamTurn();
+        if (game.isInCheckmate(toMove)) {
+            return (toMove == ChessGame.TeamColor.WHITE) ? "0-1" : "1-0";
+        }
+        if (game.isInStalemate(toMove)) {
+            return "1/2-1/2";
+        }
+        return "*";
+    }
+
+    private static int appendWrapped(StringBuilder text, int lineStart, String token) {
+        if (text.length() > lineStart) {
+            if (text.length() - lineStart + 1 + token.length() > LINE_LENGTH) {
+                text.append('\n');
+                lineStart = text.length();
+            } else {
+                text.append(' ');
+            }
+        }
+        text.append(token);
+        return lineStart;
+    }
+
+    private static void appendEscaped(StringBuilder pgn, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                pgn.append('\\');
+            }
+            pgn.append(c);
+        }
+    }
+
+    private static boolean isResult(String token) {
+        return token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2") || token.equals("*");
+    }
+
+    /**
+     * Walks through the text one game at a time.
+     */
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Game next() {
+            skipWhitespace();
+            if (pos >= text.length()) {
+                return null;
+            }
+
+            Map<String, String> tags = new LinkedHashMap<>();
+            while (pos < text.length() && text.charAt(pos) == '[') {
+                readTag(tags);
+                skipWhitespace();
+            }
+            String fen = tags.get("FEN");
+            ChessGame start = (fen != null) ? Fen.read(fen) : new ChessGame();
+
+            ChessGame game = start.clone();
+            List<ChessMove> moves = new ArrayList<>();
+            while (pos < text.length() && text.charAt(pos) != '[') {
+                char c = text.charAt(pos);
+                if (c == '{') {
+                    skipPast('}');
+                } else if (c == ';' || (c == '%' && (pos == 0 || text.charAt(pos - 1) == '\n'))) {
+                    skipPast('\n');
+                } else if (c == '(') {
+                    skipVariation();
+                } else if (c == '$') {
+                    readToken();
+                } else {
+                    String token = readToken();
+                    if (isResult(token)) {
+                        tags.putIfAbsent("Result", token);
+                        break;
+                    }
+                    String san = withoutMoveNumber(token);
+                    if (!san.isEmpty()) {
+                        ChessMove move = San.read(game, san);
+                        try {
+                            game.makeMove(move);
+                        } catch (InvalidMoveException e) {
+                            throw new IllegalArgumentException("Not a legal move: " + san, e);
+                        }
+                        moves.add(move);
+                    }
+                }
+                skipWhitespace();
+            }
+            return new Game(Collections.unmodifiableMap(tags), start, List.copyOf(moves), game);
+        }
+
+        private void readTag(Map<String, String> tags) {
+            pos++;
+            skipWhitespace();
+            int nameStart = pos;
+            while (pos < text.length() && !Character.isWhitespace(text.charAt(pos))
+                    && text.charAt(pos) != '"' && text.charAt(pos) != ']') {
+                pos++;
+            }
+            String name = text.substring(nameStart, pos);
+            skipWhitespace();
+            if (name.isEmpty() || pos >= text.length() || text.charAt(pos) != '"') {
+                throw new IllegalArgumentException("Bad tag at offset " + nameStart);
+            }
+            pos++;
+
+            StringBuilder value = new StringBuilder();
+            while (pos < text.length() && text.charAt(pos) != '"') {
+                char c = text.charAt(pos++);
+                if (c == '\\' && pos < text.length()) {
+                    c = text.charAt(pos++);
+                }
+                value.append(c);
+            }
+            skipPast(']');
+            tags.put(name, value.toString());
+        }
+
+        private String readToken() {
+            int start = pos;
+            pos++;
+            while (pos < text.length() && !Character.isWhitespace(text.charAt(pos))
+                    && "{};()[$".indexOf(text.charAt(pos)) < 0) {
+                pos++;
+            }
+            return text.substring(start, pos);
+        }
+
+        private void skipVariation() {
+            int depth = 0;
+            while (pos < text.length()) {
+                char c = text.charAt(pos);
+                if (c == '{') {
+                    // a comment can hold parentheses of its own
+                    skipPast('}');
+                    continue;
+                }
+                pos++;
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')' && --depth == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void skipPast(char end) {
+            while (pos < text.length() && text.charAt(pos) != end) {
+                pos++;
+            }
+            pos++;
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private static String withoutMoveNumber(String token) {
+            int i = 0;
+            while (i < token.length() && token.charAt(i) >= '0' && token.charAt(i) <= '9') {
+                i++;
+            }
+            if (i == token.length()) {
+                return "";
+            }
+            if (i > 0 && token.charAt(i) != '.') {
+                return token;
+            }
+            while (i < token.length() && token.charAt(i) == '.') {
+                i++;
+            }
+            return token.substring(i);
+        }
+    }
+}
@@ -3,5 +3,18 @@ package chess;
 import java.util.Collection;
 
 public interface PieceBehavior {
-    public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition);
+    /**
+     * Writes the piece's pseudo-legal moves into a caller-owned list
+     *
+     * @param board  the board the piece is on
+     * @param square the square the piece is on, numbered as in {@link PackedMove}
+     * @param moves  the list to add moves to
+     */
+    void generateMoves(ChessBoard board, int square, MoveList moves);
+
+    default Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
+        MoveList moves = new MoveList();
+        generateMoves(board, Bitboard.square(myPosition), moves);
+        return moves.toChessMoves();
+    }
 }
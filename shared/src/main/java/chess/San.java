@@ -0,0 +1,214 @@
+package chess;
+
+/**
+ * Reads and writes single moves in Standard Algebraic Notation, e.g.
+ * {@code Nf3}, {@code exd5}, {@code Rae1}, {@code e8=Q#}.
+ * <p>
+ * A move only means something in a position, so both directions take the
+ * game the move is about to be made in. Castling isn't supported by the
+ * engine and is rejected.
+ */
+public final class San {
+
+    private San() {}
+
+    /**
+     * @param game the game before the move is made; it's left unchanged
+     * @throws IllegalArgumentException if the move isn't legal in the game
+     */
+    public static String write(ChessGame game, ChessMove move) {
+        ChessPosition start = move.getStartPosition();
+        ChessPosition end = move.getEndPosition();
+        if (!Bitboard.onBoard(start.getRow(), start.getColumn()) || !Bitboard.onBoard(end.getRow(), end.getColumn())) {
+            throw new IllegalArgumentException("Not a legal move: " + move);
+        }
+        MoveList legal = new MoveList();
+        game.legalMoves(legal);
+        int requested = PackedMove.encode(move);
+        if (!contains(legal, requested)) {
+            throw new IllegalArgumentException("Not a legal move: " + move);
+        }
+
+        ChessBoard board = game.getBoard();
+        int from = PackedMove.from(requested);
+        int to = PackedMove.to(requested);
+        ChessPiece piece = board.getPiece(from);
+        boolean capture = board.getPiece(to) != null;
+
+        StringBuilder san = new StringBuilder(8);
+        if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
+            if (capture) {
+                san.append(file(from));
+            }
+        } else {
+            san.append(Fen.pieceLetter(piece.getPieceType()));
+            appendDisambiguation(san, board, legal, piece.getPieceType(), from, to);
+        }
+        if (capture) {
+            san.append('x');
+        }
+        san.append(file(to)).append(rank(to));
+        if (move.getPromotionPiece() != null) {
+            san.append('=').append(Fen.pieceLetter(move.getPromotionPiece()));
+        }
+
+        // play it to see whether it checks or mates, then put everything back
+        ChessGame.TeamColor mover = game.getTeamTurn();
+        ChessGame.TeamColor opponent = (mover == ChessGame.TeamColor.WHITE)
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        MoveUndo undo = board.makeMove(move);
+        game.setTeamTurn(opponent);
+        if (game.isInCheckmate(opponent)) {
+            san.append('#');
+        } else if (game.isInCheck(opponent)) {
+            san.append('+');
+        }
+        board.unmakeMove(undo);
+        game.setTeamTurn(mover);
+        return san.toString();
+    }
+
+    /**
+     * @param game the game the move is to be made in
+     * @return the legal move the text describes
+     * @throws IllegalArgumentException if the text doesn't describe exactly
+     * one legal move
+     */
+    public static ChessMove read(ChessGame game, String san) {
+        int end = san.length();
+        // check, mate and annotation marks don't change which move it is
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        if (san.startsWith("O-O") || san.startsWith("0-0")) {
+            throw new IllegalArgumentException("Castling isn't supported: " + san);
+        }
+
+        ChessPiece.PieceType promotion = null;
+        if (end >= 2 && san.charAt(end - 2) == '=') {
+            promotion = promotionType(san, san.charAt(end - 1));
+            end -= 2;
+        } else if (end >= 3 && Character.isUpperCase(san.charAt(end - 1)) && isRank(san.charAt(end - 2))) {
+            // some writers leave out the '=', as in e8Q
+            promotion = promotionType(san, san.charAt(end - 1));
+            end -= 1;
+        }
+
+        if (end < 2 || !isFile(san.charAt(end - 2)) || !isRank(san.charAt(end - 1))) {
+            throw new IllegalArgumentException("Missing destination square: " + san);
+        }
+        int to = Bitboard.square(san.charAt(end - 1) - '0', san.charAt(end - 2) - 'a' + 1);
+        end -= 2;
+
+        int start = 0;
+        ChessPiece.PieceType type = ChessPiece.PieceType.PAWN;
+        if (start < end && Character.isUpperCase(san.charAt(start))) {
+            type = Fen.pieceType(san.charAt(start));
+            if (type == null) {
+                throw new IllegalArgumentException("Unknown piece: " + san);
+            }
+            start++;
+        }
+        if (end > start && (san.charAt(end - 1) == 'x' || san.charAt(end - 1) == ':')) {
+            end--;
+        }
+
+        // whatever is left narrows down which piece moves
+        int fromFile = 0;
+        int fromRank = 0;
+        for (int i = start; i < end; i++) {
+            char c = san.charAt(i);
+            if (isFile(c) && fromFile == 0) {
+                fromFile = c - 'a' + 1;
+            } else if (isRank(c) && fromRank == 0) {
+                fromRank = c - '0';
+            } else {
+                throw new IllegalArgumentException("Unreadable move: " + san);
+            }
+        }
+
+        MoveList legal = new MoveList();
+        game.legalMoves(legal);
+        ChessBoard board = game.getBoard();
+        int match = -1;
+        for (int i = 0; i < legal.size(); i++) {
+            int move = legal.get(i);
+            int from = PackedMove.from(move);
+            if (PackedMove.to(move) != to
+                    || PackedMove.promotion(move) != promotion
+                    || board.getPiece(from).getPieceType() != type
+                    || (fromFile != 0 && Bitboard.column(from) != fromFile)
+                    || (fromRank != 0 && Bitboard.row(from) != fromRank)) {
+                continue;
+            }
+            if (match >= 0) {
+                throw new IllegalArgumentException("Ambiguous move: " + san);
+            }
+            match = move;
+        }
+        if (match < 0) {
+            throw new IllegalArgumentException("No legal move matches: " + san);
+        }
+        return PackedMove.toChessMove(match);
+    }
+
+    private static void appendDisambiguation(StringBuilder san, ChessBoard board, MoveList legal,
+                                             ChessPiece.PieceType type, int from, int to) {
+        boolean ambiguous = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        for (int i = 0; i < legal.size(); i++) {
+            int other = PackedMove.from(legal.get(i));
+            if (other == from || PackedMove.to(legal.get(i)) != to
+                    || board.getPiece(other).getPieceType() != type) {
+                continue;
+            }
+            ambiguous = true;
+            sameFile |= Bitboard.column(other) == Bitboard.column(from);
+            sameRank |= Bitboard.row(other) == Bitboard.row(from);
+        }
+        if (!ambiguous) {
+            return;
+        }
+        if (!sameFile) {
+            san.append(file(from));
+        } else if (!sameRank) {
+            san.append(rank(from));
+        } else {
+            san.append(file(from)).append(rank(from));
+        }
+    }
+
+    private static boolean contains(MoveList moves, int move) {
+        for (int i = 0; i < moves.size(); i++) {
+            if (PackedMove.sameMove(moves.get(i), move)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ChessPiece.PieceType promotionType(String san, char letter) {
+        ChessPiece.PieceType type = Fen.pieceType(letter);
+        if (type == null || type == ChessPiece.PieceType.KING || type == ChessPiece.PieceType.PAWN) {
+            throw new IllegalArgumentException("Bad promotion piece: " + san);
+        }
+        return type;
+    }
+
+    private static char file(int square) {
+        return (char) ('a' + Bitboard.column(square) - 1);
+    }
+
+    private static char rank(int square) {
+        return (char) ('0' + Bitboard.row(square));
+    }
+
+    private static boolean isFile(char c) {
+        return c >= 'a' && c <= 'h';
+    }
+
+    private static boolean isRank(char c) {
+        return c >= '1' && c <= '8';
+    }
+}
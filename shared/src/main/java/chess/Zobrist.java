@@ -0,0 +1,39 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing. A position's key is the XOR of the key for
+ * every piece on its square, plus {@link #blackToMove()} when it's black's
+ * turn, so making a move only has to XOR out the keys that changed rather
+ * than rehash the whole board.
+ * <p>
+ * The keys come from a fixed seed so a position hashes the same way in every
+ * run, which lets keys be stored and compared across restarts. Castling and
+ * en passant rights would get keys here too, but the engine doesn't support
+ * either yet.
+ */
+final class Zobrist {
+    private static final long[][] PIECE_KEYS = new long[Bitboard.PIECE_KINDS][Bitboard.SQUARES];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_C4E5_5L);
+        for (long[] keys : PIECE_KEYS) {
+            for (int square = 0; square < Bitboard.SQUARES; square++) {
+                keys[square] = random.nextLong();
+            }
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {}
+
+    static long piece(ChessPiece piece, int square) {
+        return PIECE_KEYS[Bitboard.pieceIndex(piece.getTeamColor(), piece.getPieceType())][square];
+    }
+
+    static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+}
@@ -1,4 +1,15 @@
 package model;
 import chess.ChessGame;
 
-public record GameData(int gameID, String whiteUsername, String blackUsername, String gameName, ChessGame game) {}
+public record GameData(int gameID, String whiteUsername, String blackUsername, String gameName, ChessGame game) {
+
+    /**
+     * @return a copy with its own game, so changes to one don't show up in the other
+     */
+    public GameData copy() {
+        if (game == null) {
+            return this;
+        }
+        return new GameData(gameID, whiteUsername, blackUsername, gameName, game.clone());
+    }
+}
@@ -0,0 +1,13 @@
+package model;
+
+/**
+ * What a game list shows about a game, without the game itself.
+ */
+public record GameSummary(int gameID, String whiteUsername, String blackUsername, String gameName,
+                          boolean gameEnded) {
+
+    public static GameSummary of(GameData game) {
+        boolean ended = game.game() != null && game.game().isGameEnded();
+        return new GameSummary(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName(), ended);
+    }
+}
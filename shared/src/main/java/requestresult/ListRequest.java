@@ -0,0 +1,13 @@
+package requestresult;
+
+/**
+ * Which page of games to list. Every field is optional; without a limit or
+ * cursor every matching game is returned in one page.
+ *
+ * @param limit     the most games to return
+ * @param cursor    the nextCursor from the previous page
+ * @param openSeats true for only games with a seat free
+ * @param player    only games this user plays in
+ * @param ended     true for only finished games, false for only unfinished ones
+ */
+public record ListRequest(Integer limit, Integer cursor, Boolean openSeats, String player, Boolean ended) {}
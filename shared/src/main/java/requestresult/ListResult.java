@@ -1,8 +1,10 @@
 package requestresult;
 
-import model.GameData;
+import model.GameSummary;
 
 import java.util.Collection;
 
-public record ListResult(Collection<GameData> games) {}
-
+/**
+ * @param nextCursor pass as the cursor to get the next page, or null if this is the last
+ */
+public record ListResult(Collection<GameSummary> games, Integer nextCursor) {}
@@ -2,7 +2,23 @@ package websocket.commands;
 
 
 public class Connect extends UserGameCommand {
+    // null for clients that don't know about MOVE messages
+    private final Boolean moveUpdates;
+
     public Connect (String authToken, Integer gameID) {
+        this(authToken, gameID, false);
+    }
+
+    /**
+     * @param moveUpdates true to get a MOVE message after each move instead of
+     *                    the whole game in a LOAD_GAME
+     */
+    public Connect (String authToken, Integer gameID, boolean moveUpdates) {
         super(CommandType.CONNECT, authToken, gameID);
+        this.moveUpdates = moveUpdates ? Boolean.TRUE : null;
+    }
+
+    public boolean wantsMoveUpdates () {
+        return Boolean.TRUE.equals(moveUpdates);
     }
 }
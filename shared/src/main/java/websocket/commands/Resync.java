@@ -0,0 +1,11 @@
+package websocket.commands;
+
+/**
+ * Asks the server to resend the whole game, for a client that missed a MOVE
+ * message and can no longer apply them in order.
+ */
+public class Resync extends UserGameCommand {
+    public Resync(String authToken, Integer gameID) {
+        super(CommandType.RESYNC, authToken, gameID);
+    }
+}
@@ -19,6 +19,7 @@ public class UserGameCommandDeserializer implements JsonDeserializer<UserGameCom
             case "MAKE_MOVE" -> gson.fromJson(jsonElement, MakeMove.class);
             case "RESIGN" -> gson.fromJson(jsonElement, Resign.class);
             case "LEAVE" -> gson.fromJson(jsonElement, Leave.class);
+            case "RESYNC" -> gson.fromJson(jsonElement, Resync.class);
             default -> throw new JsonParseException("Unknown command type: " + commandType);
         };
     }
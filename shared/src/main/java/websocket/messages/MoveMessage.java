@@ -0,0 +1,59 @@
+package websocket.messages;
+
+import chess.ChessGame;
+import chess.ChessMove;
+
+/**
+ * Tells a client which move was just made so it can update its own copy of
+ * the game instead of receiving the whole game again.
+ * <p>
+ * The sequence number is the game's move count after the move. A client
+ * whose copy isn't exactly one move behind has missed something and should
+ * ask for the full game again.
+ */
+public class MoveMessage extends ServerMessage {
+    private final ChessMove move;
+    private final ChessGame.TeamColor teamTurn;
+    private final boolean check;
+    private final boolean checkmate;
+    private final boolean stalemate;
+    private final int sequence;
+
+    public MoveMessage(ChessMove move, ChessGame.TeamColor teamTurn, boolean check,
+                       boolean checkmate, boolean stalemate, int sequence) {
+        super(ServerMessageType.MOVE);
+        this.move = move;
+        this.teamTurn = teamTurn;
+        this.check = check;
+        this.checkmate = checkmate;
+        this.stalemate = stalemate;
+        this.sequence = sequence;
+    }
+
+    public ChessMove getMove() {
+        return move;
+    }
+
+    /**
+     * @return the team whose turn it is after the move
+     */
+    public ChessGame.TeamColor getTeamTurn() {
+        return teamTurn;
+    }
+
+    public boolean isCheck() {
+        return check;
+    }
+
+    public boolean isCheckmate() {
+        return checkmate;
+    }
+
+    public boolean isStalemate() {
+        return stalemate;
+    }
+
+    public int getSequence() {
+        return sequence;
+    }
+}
@@ -18,6 +18,7 @@ public class ServerMessageDeserializer implements JsonDeserializer<ServerMessage
             case "NOTIFICATION" -> gson.fromJson(jsonElement, NotificationMessage.class);
             case "LOAD_GAME" -> gson.fromJson(jsonElement, LoadGameMessage.class);
             case "ERROR" -> gson.fromJson(jsonElement, ErrorMessage.class);
+            case "MOVE" -> gson.fromJson(jsonElement, MoveMessage.class);
             default -> throw new JsonParseException("Unknown command type: " + messageType);
         };
     }
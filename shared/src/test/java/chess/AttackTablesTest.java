@@ -0,0 +1,45 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class AttackTablesTest {
+
+    @Test
+    void rookOnEmptyBoard() {
+        // a1 sees the rest of the a file and the first rank
+        Assertions.assertEquals(0x01010101010101FEL, AttackTables.rookAttacks(0, 0L));
+    }
+
+    @Test
+    void rookStopsAtBlockers() {
+        int d4 = Bitboard.square(4, 4);
+        long blockers = Bitboard.bit(Bitboard.square(6, 4)) | Bitboard.bit(Bitboard.square(4, 2));
+
+        long expected = Bitboard.bit(Bitboard.square(5, 4)) | Bitboard.bit(Bitboard.square(6, 4))
+                | Bitboard.bit(Bitboard.square(3, 4)) | Bitboard.bit(Bitboard.square(2, 4))
+                | Bitboard.bit(Bitboard.square(1, 4))
+                | Bitboard.bit(Bitboard.square(4, 3)) | Bitboard.bit(Bitboard.square(4, 2))
+                | Bitboard.bit(Bitboard.square(4, 5)) | Bitboard.bit(Bitboard.square(4, 6))
+                | Bitboard.bit(Bitboard.square(4, 7)) | Bitboard.bit(Bitboard.square(4, 8));
+        Assertions.assertEquals(expected, AttackTables.rookAttacks(d4, blockers));
+    }
+
+    @Test
+    void bishopIgnoresPiecesOffItsDiagonals() {
+        int c1 = Bitboard.square(1, 3);
+        long offDiagonal = Bitboard.bit(Bitboard.square(2, 3));
+
+        Assertions.assertEquals(AttackTables.bishopAttacks(c1, 0L), AttackTables.bishopAttacks(c1, offDiagonal));
+        Assertions.assertEquals(7, Long.bitCount(AttackTables.bishopAttacks(c1, 0L)));
+    }
+
+    @Test
+    void leaperAttacksAtCorners() {
+        Assertions.assertEquals(2, Long.bitCount(AttackTables.knightAttacks(0)));
+        Assertions.assertEquals(3, Long.bitCount(AttackTables.kingAttacks(63)));
+        Assertions.assertEquals(Bitboard.bit(Bitboard.square(3, 2)),
+                AttackTables.pawnAttacks(ChessGame.TeamColor.WHITE, Bitboard.square(2, 1)));
+        Assertions.assertEquals(0L, AttackTables.pawnAttacks(ChessGame.TeamColor.BLACK, Bitboard.square(1, 5)));
+    }
+}
@@ -0,0 +1,122 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ChessBoardTest {
+
+    @Test
+    void bitboardsFollowAddPiece() {
+        ChessBoard board = new ChessBoard();
+        ChessPiece rook = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+        ChessPiece knight = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
+
+        board.addPiece(new ChessPosition(1, 1), rook);
+        Assertions.assertEquals(1L, board.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        Assertions.assertEquals(1L, board.occupied());
+
+        // replacing a piece has to clear the old piece's bit
+        board.addPiece(new ChessPosition(1, 1), knight);
+        Assertions.assertEquals(0L, board.pieces(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(1L, board.pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+
+        board.addPiece(new ChessPosition(1, 1), null);
+        Assertions.assertEquals(0L, board.occupied());
+    }
+
+    @Test
+    void resetBoardOccupancy() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        Assertions.assertEquals(0x000000000000FFFFL, board.pieces(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(0xFFFF000000000000L, board.pieces(ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(new ChessPosition(1, 5), board.getKing(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(new ChessPosition(8, 5), board.getKing(ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(32, board.getAllPieces().size());
+    }
+
+    @Test
+    void getPositionFindsExactPiece() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessPiece pawn = board.getPiece(new ChessPosition(2, 4));
+
+        Assertions.assertEquals(new ChessPosition(2, 4), board.getPosition(pawn));
+        Assertions.assertNull(board.getPosition(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN)));
+    }
+
+    @Test
+    void deserializedBoardIsReindexed() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        ChessBoard copy = new Gson().fromJson(new Gson().toJson(board), ChessBoard.class);
+
+        Assertions.assertEquals(board, copy);
+        Assertions.assertEquals(board.occupied(), copy.occupied());
+        Assertions.assertEquals(new ChessPosition(8, 5), copy.getKing(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    void cloneHasIndependentBitboards() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessBoard clone = board.clone();
+
+        clone.addPiece(new ChessPosition(2, 1), null);
+
+        Assertions.assertEquals(0x000000000000FFFFL, board.pieces(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(0x000000000000FEFFL, clone.pieces(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    void unmakeRestoresCapture() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessBoard original = board.clone();
+        ChessMove capture = new ChessMove(new ChessPosition(1, 4), new ChessPosition(7, 4), null);
+
+        MoveUndo undo = board.makeMove(capture);
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN), undo.captured());
+        Assertions.assertEquals(15, Long.bitCount(board.pieces(ChessGame.TeamColor.BLACK)));
+
+        board.unmakeMove(undo);
+        Assertions.assertEquals(original, board);
+        Assertions.assertEquals(original.occupied(), board.occupied());
+    }
+
+    @Test
+    void unmakeRestoresPromotedPawn() {
+        ChessBoard board = new ChessBoard();
+        ChessPiece pawn = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+        board.addPiece(new ChessPosition(7, 1), pawn);
+
+        MoveUndo undo = board.makeMove(new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 1),
+                ChessPiece.PieceType.KNIGHT));
+        Assertions.assertEquals(ChessPiece.PieceType.KNIGHT, board.getPiece(new ChessPosition(8, 1)).getPieceType());
+
+        board.unmakeMove(undo);
+        Assertions.assertSame(pawn, board.getPiece(new ChessPosition(7, 1)));
+        Assertions.assertEquals(0L, board.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+    }
+
+    @Test
+    void zobristKeyFollowsMoves() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        long start = board.getZobristKey();
+
+        MoveUndo undo = board.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        Assertions.assertNotEquals(start, board.getZobristKey());
+
+        board.unmakeMove(undo);
+        Assertions.assertEquals(start, board.getZobristKey());
+
+        // the same placement reached by a different route hashes the same
+        ChessBoard rebuilt = new Gson().fromJson(new Gson().toJson(board), ChessBoard.class);
+        Assertions.assertEquals(start, rebuilt.getZobristKey());
+        Assertions.assertEquals(board.hashCode(), rebuilt.hashCode());
+    }
+}
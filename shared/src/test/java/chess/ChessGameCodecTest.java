@@ -0,0 +1,54 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ChessGameCodecTest {
+
+    @Test
+    void startingGameRoundTrips() {
+        ChessGame game = new ChessGame();
+        byte[] bytes = ChessGameCodec.encode(game);
+
+        Assertions.assertEquals(ChessGameCodec.ENCODED_LENGTH, bytes.length);
+        Assertions.assertTrue(bytes.length < new Gson().toJson(game).length() / 10);
+        Assertions.assertEquals(game, ChessGameCodec.decode(bytes));
+    }
+
+    @Test
+    void stateAfterMovesRoundTrips() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 6), ChessPosition.of(3, 6), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 7), ChessPosition.of(4, 7), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(8, 4), ChessPosition.of(4, 8), null));
+        game.setGameEnded(true);
+
+        ChessGame decoded = ChessGameCodec.decode(ChessGameCodec.encode(game));
+        Assertions.assertEquals(game, decoded);
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, decoded.getTeamTurn());
+        Assertions.assertTrue(decoded.isGameEnded());
+        Assertions.assertEquals(4, decoded.getMoveCount());
+        Assertions.assertTrue(decoded.isInCheckmate(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    void blackToMoveRoundTrips() {
+        ChessGame game = new ChessGame();
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK,
+                ChessGameCodec.decode(ChessGameCodec.encode(game)).getTeamTurn());
+    }
+
+    @Test
+    void rejectsOtherBytes() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decode(new byte[3]));
+        byte[] bytes = ChessGameCodec.encode(new ChessGame());
+        bytes[0] = 0;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decode(bytes));
+        bytes[0] = 1;
+        bytes[bytes.length - 1] = (byte) 0xFF;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decode(bytes));
+    }
+}
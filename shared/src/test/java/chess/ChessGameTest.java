@@ -0,0 +1,84 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ChessGameTest {
+
+    @Test
+    void legalMovesFromStartingPosition() {
+        ChessGame game = new ChessGame();
+        MoveList moves = new MoveList();
+
+        game.legalMoves(moves);
+        Assertions.assertEquals(20, moves.size());
+
+        // refilling the list replaces the previous moves
+        game.legalMoves(moves);
+        Assertions.assertEquals(20, moves.size());
+    }
+
+    @Test
+    void legalMovesMatchValidMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 6), new ChessPosition(6, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(1, 4), new ChessPosition(5, 8), null));
+
+        MoveList moves = new MoveList();
+        game.legalMoves(moves);
+        int validMoveCount = 0;
+        for (ChessPiece piece : game.getBoard().getAllPieces()) {
+            if (piece.getTeamColor() == ChessGame.TeamColor.BLACK) {
+                validMoveCount += game.validMoves(game.getBoard().getPosition(piece)).size();
+            }
+        }
+
+        // black is in check from the queen on h5 and g7-g6 is the only block
+        Assertions.assertEquals(validMoveCount, moves.size());
+        Assertions.assertEquals(1, moves.size());
+    }
+
+    @Test
+    void packedMoveRoundTrip() {
+        ChessMove move = new ChessMove(new ChessPosition(7, 2), new ChessPosition(8, 1), ChessPiece.PieceType.KNIGHT);
+        int packed = PackedMove.encode(move);
+
+        Assertions.assertEquals(move, PackedMove.toChessMove(packed));
+        Assertions.assertTrue(PackedMove.sameMove(packed, packed | PackedMove.CAPTURE));
+        Assertions.assertFalse(PackedMove.isCapture(packed));
+    }
+
+    @Test
+    void zobristKeyIncludesSideToMove() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        ChessGame other = new ChessGame();
+        Assertions.assertEquals(game.getZobristKey(), other.getZobristKey());
+
+        other.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertNotEquals(game.getZobristKey(), other.getZobristKey());
+        Assertions.assertEquals(game.getBoard().getZobristKey(), other.getBoard().getZobristKey());
+
+        // knights out and back returns to the starting position
+        game.makeMove(ChessMove.of(ChessPosition.of(1, 2), ChessPosition.of(3, 3), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(8, 2), ChessPosition.of(6, 3), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(3, 3), ChessPosition.of(1, 2), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(6, 3), ChessPosition.of(8, 2), null));
+        Assertions.assertEquals(new ChessGame().getZobristKey(), game.getZobristKey());
+        Assertions.assertEquals(new ChessGame(), game);
+    }
+
+    @Test
+    void moveCountCountsMadeMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(0, game.getMoveCount());
+        Assertions.assertThrows(InvalidMoveException.class,
+                () -> game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(5, 5), null)));
+        Assertions.assertEquals(0, game.getMoveCount());
+
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null));
+        Assertions.assertEquals(2, game.getMoveCount());
+        Assertions.assertEquals(2, game.clone().getMoveCount());
+    }
+}
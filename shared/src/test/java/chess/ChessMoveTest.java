@@ -0,0 +1,46 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ChessMoveTest {
+
+    @Test
+    void factoriesReturnSharedInstances() {
+        Assertions.assertSame(ChessPosition.of(2, 5), ChessPosition.of(2, 5));
+        Assertions.assertEquals(new ChessPosition(2, 5), ChessPosition.of(2, 5));
+        Assertions.assertEquals(new ChessPosition(2, 5).hashCode(), ChessPosition.of(2, 5).hashCode());
+
+        ChessMove move = ChessMove.of(new ChessPosition(7, 1), new ChessPosition(8, 1), ChessPiece.PieceType.QUEEN);
+        Assertions.assertSame(move, ChessMove.of(ChessPosition.of(7, 1), ChessPosition.of(8, 1), ChessPiece.PieceType.QUEEN));
+        Assertions.assertSame(ChessPosition.of(8, 1), move.getEndPosition());
+        Assertions.assertNotSame(move, ChessMove.of(ChessPosition.of(7, 1), ChessPosition.of(8, 1), null));
+    }
+
+    @Test
+    void offBoardPositionsAreNotCached() {
+        ChessPosition offBoard = ChessPosition.of(0, 9);
+        Assertions.assertEquals(0, offBoard.getRow());
+        Assertions.assertEquals(9, offBoard.getColumn());
+
+        ChessMove move = ChessMove.of(ChessPosition.of(1, 1), offBoard, null);
+        Assertions.assertSame(offBoard, move.getEndPosition());
+    }
+
+    @Test
+    void gsonKeepsJsonShapeAndInterns() {
+        Gson gson = new Gson();
+        ChessMove move = ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null);
+
+        String json = gson.toJson(move);
+        Assertions.assertEquals("{\"startPosition\":{\"row\":2,\"col\":5},\"endPosition\":{\"row\":4,\"col\":5}}", json);
+        Assertions.assertSame(move, gson.fromJson(json, ChessMove.class));
+
+        ChessMove promotion = gson.fromJson(
+                "{\"startPosition\":{\"row\":7,\"col\":1},\"endPosition\":{\"row\":8,\"col\":1},\"promotionPiece\":\"KNIGHT\"}",
+                ChessMove.class);
+        Assertions.assertSame(ChessMove.of(ChessPosition.of(7, 1), ChessPosition.of(8, 1), ChessPiece.PieceType.KNIGHT),
+                promotion);
+    }
+}
@@ -0,0 +1,59 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class FenTest {
+
+    @Test
+    void startingPosition() {
+        Assertions.assertEquals(Fen.STARTING_POSITION, Fen.write(new ChessGame()));
+        Assertions.assertEquals(new ChessGame(), Fen.read(Fen.STARTING_POSITION));
+    }
+
+    @Test
+    void writesSideToMoveAndMoveNumber() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b - - 0 1", Fen.write(game));
+
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 3), ChessPosition.of(5, 3), null));
+        Assertions.assertEquals("rnbqkbnr/pp1ppppp/8/2p5/4P3/8/PPPP1PPP/RNBQKBNR w - - 0 2", Fen.write(game));
+    }
+
+    @Test
+    void readsPositionWithCastlingAndEnPassantFields() {
+        ChessGame game = Fen.read("rnbqkbnr/pp1ppppp/8/2p5/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq e3 1 2");
+
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        Assertions.assertEquals(3, game.getMoveCount());
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT),
+                game.getBoard().getPiece(ChessPosition.of(3, 6)));
+        Assertions.assertNull(game.getBoard().getPiece(ChessPosition.of(1, 7)));
+        Assertions.assertEquals("rnbqkbnr/pp1ppppp/8/2p5/4P3/5N2/PPPP1PPP/RNBQKB1R b - - 0 2", Fen.write(game));
+    }
+
+    @Test
+    void perftPositionMatchesPublishedCounts() {
+        ChessGame game = Fen.read("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w -");
+        Assertions.assertEquals(14, Perft.perft(game, 1));
+        Assertions.assertEquals(191, Perft.perft(game, 2));
+    }
+
+    @Test
+    void rejectsMalformedPositions() {
+        String[] bad = {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNRR w",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w",
+                "rnbqkbnr/ppppxppp/8/8/8/8/PPPPPPPP/RNBQKBNR w",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 one",
+        };
+        for (String fen : bad) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.read(fen), fen);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+class KingSafetyTest {
+
+    @Test
+    void pinnedPieceMayOnlyMoveAlongPin() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(3, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        board.addPiece(new ChessPosition(6, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        board.addPiece(new ChessPosition(8, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+
+        Set<ChessPosition> ends = new HashSet<>();
+        for (ChessMove move : game.validMoves(new ChessPosition(3, 5))) {
+            ends.add(move.getEndPosition());
+        }
+
+        Assertions.assertEquals(Set.of(new ChessPosition(2, 5), new ChessPosition(4, 5),
+                new ChessPosition(5, 5), new ChessPosition(6, 5)), ends);
+    }
+
+    @Test
+    void doubleCheckLeavesOnlyKingMoves() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(2, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        board.addPiece(new ChessPosition(8, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        board.addPiece(new ChessPosition(3, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        board.addPiece(new ChessPosition(8, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+
+        // the rook could block the file or take nothing, but a double check can't be blocked
+        Assertions.assertTrue(game.validMoves(new ChessPosition(2, 1)).isEmpty());
+        Assertions.assertTrue(game.isInCheck(ChessGame.TeamColor.WHITE));
+        Assertions.assertFalse(game.validMoves(new ChessPosition(1, 5)).isEmpty());
+    }
+
+    @Test
+    void kingCannotStepAlongCheckingRay() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(4, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(4, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        board.addPiece(new ChessPosition(8, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+
+        for (ChessMove move : game.validMoves(new ChessPosition(4, 4))) {
+            Assertions.assertNotEquals(4, move.getEndPosition().getRow(), "king stayed on the rook's rank: " + move);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+class PerftTest {
+
+    @Test
+    void startingPosition() {
+        ChessGame game = new ChessGame();
+        // castling and en passant don't show up until depth 5
+        Assertions.assertEquals(20, Perft.perft(game, 1));
+        Assertions.assertEquals(400, Perft.perft(game, 2));
+        Assertions.assertEquals(8902, Perft.perft(game, 3));
+        Assertions.assertEquals(197281, Perft.perft(game, 4));
+
+        Assertions.assertEquals(new ChessGame(), game);
+    }
+
+    @Test
+    void divideSumsToPerft() {
+        ChessGame game = new ChessGame();
+        Map<ChessMove, Long> divide = Perft.divide(game, 3);
+
+        Assertions.assertEquals(20, divide.size());
+        Assertions.assertEquals(8902, divide.values().stream().mapToLong(Long::longValue).sum());
+        Assertions.assertEquals(600, divide.get(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null)));
+    }
+
+    @Test
+    void endgamePosition() {
+        // "position 3" from the chess programming wiki, 8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w
+        ChessBoard board = new ChessBoard();
+        board.addPiece(ChessPosition.of(7, 3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        board.addPiece(ChessPosition.of(6, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        board.addPiece(ChessPosition.of(5, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(ChessPosition.of(5, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        board.addPiece(ChessPosition.of(5, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        board.addPiece(ChessPosition.of(4, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        board.addPiece(ChessPosition.of(4, 6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        board.addPiece(ChessPosition.of(4, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        board.addPiece(ChessPosition.of(2, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        board.addPiece(ChessPosition.of(2, 7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+
+        // en passant first matters at depth 3
+        Assertions.assertEquals(14, Perft.perft(game, 1));
+        Assertions.assertEquals(191, Perft.perft(game, 2));
+    }
+
+    @Test
+    void legalMovesMatchPlayingEveryMoveOut() {
+        Random random = new Random(240);
+        for (int gameNumber = 0; gameNumber < 20; gameNumber++) {
+            ChessGame game = new ChessGame();
+            MoveList moves = new MoveList();
+            for (int ply = 0; ply < 80; ply++) {
+                game.legalMoves(moves);
+                Assertions.assertEquals(bruteForceLegalMoves(game), toSet(moves),
+                        "game " + gameNumber + " ply " + ply);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                game.getBoard().makeMove(PackedMove.toChessMove(moves.get(random.nextInt(moves.size()))));
+                game.setTeamTurn(game.getTeamTurn() == ChessGame.TeamColor.WHITE
+                        ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+            }
+        }
+    }
+
+    private static Set<ChessMove> bruteForceLegalMoves(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        ChessGame.TeamColor team = game.getTeamTurn();
+        Set<ChessMove> legal = new HashSet<>();
+        MoveList pseudoLegal = new MoveList();
+        long pieces = board.pieces(team);
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            pseudoLegal.clear();
+            board.getPiece(from).behavior().generateMoves(board, from, pseudoLegal);
+            for (int i = 0; i < pseudoLegal.size(); i++) {
+                ChessMove move = PackedMove.toChessMove(pseudoLegal.get(i));
+                MoveUndo undo = board.makeMove(move);
+                if (!game.isInCheck(team)) {
+                    legal.add(move);
+                }
+                board.unmakeMove(undo);
+            }
+        }
+        return legal;
+    }
+
+    private static Set<ChessMove> toSet(MoveList moves) {
+        return new HashSet<>(moves.toChessMoves());
+    }
+}
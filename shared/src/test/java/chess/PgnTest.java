@@ -0,0 +1,110 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class PgnTest {
+
+    @Test
+    void sanForCommonMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals("e4", San.write(game, ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null)));
+        Assertions.assertEquals("Nf3", San.write(game, ChessMove.of(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null)));
+
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null));
+        Assertions.assertEquals("exd5", San.write(game, ChessMove.of(ChessPosition.of(4, 5), ChessPosition.of(5, 4), null)));
+        Assertions.assertEquals("Bb5+", San.write(game, ChessMove.of(ChessPosition.of(1, 6), ChessPosition.of(5, 2), null)));
+        // writing a move leaves the game as it was
+        Assertions.assertEquals(Fen.read("rnbqkbnr/ppp1pppp/8/3p4/4P3/8/PPPP1PPP/RNBQKBNR w - - 0 2"), game);
+    }
+
+    @Test
+    void sanDisambiguatesAndPromotes() {
+        ChessGame game = Fen.read("4k3/1P6/8/8/8/8/4K3/R6R w - - 0 1");
+        ChessMove rookMove = ChessMove.of(ChessPosition.of(1, 1), ChessPosition.of(1, 4), null);
+        ChessMove promotion = ChessMove.of(ChessPosition.of(7, 2), ChessPosition.of(8, 2), ChessPiece.PieceType.QUEEN);
+
+        Assertions.assertEquals("Rad1", San.write(game, rookMove));
+        Assertions.assertEquals("b8=Q+", San.write(game, promotion));
+        Assertions.assertEquals(rookMove, San.read(game, "Rad1"));
+        Assertions.assertEquals(promotion, San.read(game, "b8=Q+"));
+        Assertions.assertEquals(promotion, San.read(game, "b8Q"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> San.read(game, "Rd1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> San.read(game, "b8"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> San.read(game, "O-O"));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> San.write(game, ChessMove.of(ChessPosition.of(1, 1), ChessPosition.of(2, 2), null)));
+    }
+
+    @Test
+    void writesAndReadsScholarsMate() {
+        List<ChessMove> moves = List.of(
+                ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null),
+                ChessMove.of(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null),
+                ChessMove.of(ChessPosition.of(1, 6), ChessPosition.of(4, 3), null),
+                ChessMove.of(ChessPosition.of(8, 2), ChessPosition.of(6, 3), null),
+                ChessMove.of(ChessPosition.of(1, 4), ChessPosition.of(5, 8), null),
+                ChessMove.of(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null),
+                ChessMove.of(ChessPosition.of(5, 8), ChessPosition.of(7, 6), null));
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("Event", "Casual \"quick\" game");
+        tags.put("White", "alice");
+
+        String pgn = Pgn.write(tags, new ChessGame(), moves);
+        Assertions.assertEquals("""
+                [Event "Casual \\"quick\\" game"]
+                [White "alice"]
+                [Result "1-0"]
+
+                1. e4 e5 2. Bc4 Nc6 3. Qh5 Nf6 4. Qxf7# 1-0
+                """, pgn);
+
+        Pgn.Game game = Pgn.read(pgn);
+        Assertions.assertEquals(moves, game.moves());
+        Assertions.assertEquals("Casual \"quick\" game", game.tags().get("Event"));
+        Assertions.assertTrue(game.end().isInCheckmate(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    void readsAnnotatedGamesFromSetUpPositions() {
+        String pgn = """
+                [Event "First"]
+                [SetUp "1"]
+                [FEN "4k3/8/8/8/8/8/4P3/4K3 b - - 0 10"]
+
+                10... Kd7 {king walks (towards the pawn)} 11. e4 $1 (11. e3 Kd6) Ke6 ; rest
+                12.Ke2 *
+
+                [Event "Second"]
+
+                1. d4 d5 0-1
+                """;
+
+        List<Pgn.Game> games = Pgn.readAll(pgn);
+        Assertions.assertEquals(2, games.size());
+
+        Pgn.Game first = games.get(0);
+        Assertions.assertEquals(4, first.moves().size());
+        Assertions.assertEquals("*", first.tags().get("Result"));
+        Assertions.assertEquals("8/8/4k3/8/4P3/8/4K3/8 b - - 0 12", Fen.write(first.end()));
+        // writing it back starts from the same position with the same numbering
+        Assertions.assertTrue(Pgn.write(Map.of(), first.start(), first.moves())
+                .contains("10... Kd7 11. e4 Ke6 12. Ke2 *"));
+
+        Pgn.Game second = games.get(1);
+        Assertions.assertEquals("0-1", second.tags().get("Result"));
+        Assertions.assertEquals(2, second.moves().size());
+        Assertions.assertEquals(new ChessGame(), second.start());
+    }
+
+    @Test
+    void rejectsIllegalMoves() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Pgn.read("1. e5 *"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Pgn.read("   "));
+    }
+}